@@ -0,0 +1,177 @@
+package com.kennyc.adapters_java;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link ItemStore} backing BaseRecyclerAdapter, with its notifications going through an
+ * {@link UpdateBatch} to a callback that discards them. Every storage is run with and without a {@link PositionIndex},
+ * as enabled by BaseRecyclerAdapter#enablePositionIndex.
+ * <p>
+ * ArrayRecyclerAdapter keeps its own list and needs the Android runtime, its list operations are measured by
+ * ArrayAdapterListBenchmark in the library's unit tests.
+ * <p>
+ * The store is built once per iteration. Benchmarks that mutate it undo their change in the same invocation, so
+ * every invocation sees a list of the original size and the result is the cost of the pair of operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdapterListBenchmark {
+
+    // Number of items inserted or removed by the range operations
+    static final int RANGE = 100;
+
+    static final ListUpdateCallback NO_OP = new ListUpdateCallback() {
+        @Override
+        public void onInserted(int position, int count) {
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+        }
+    };
+
+    @State(Scope.Thread)
+    public static class Items {
+        @Param({"100", "10000", "100000", "1000000"})
+        public int size;
+
+        @Param({"array", "chunked", "deque"})
+        public String storage;
+
+        @Param({"none", "position"})
+        public String index;
+
+        ItemStore<Integer> store;
+
+        List<Integer> items;
+
+        List<Integer> range;
+
+        Integer lastItem;
+
+        Integer middleItem;
+
+        Integer missingItem;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            items = createItems(0, size);
+            store = new ItemStore<>(createStorage(storage, items), new UpdateBatch(NO_OP));
+            if ("position".equals(index)) store.setPositionIndex(new PositionIndex<Integer>(null));
+            range = createItems(size, RANGE);
+            lastItem = size - 1;
+            middleItem = size / 2;
+            missingItem = -1;
+        }
+    }
+
+    @Benchmark
+    public int addAndRemoveLast(Items state) {
+        state.store.add(state.size);
+        state.store.remove(state.size);
+        return state.store.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveAtHead(Items state) {
+        state.store.add(0, state.size);
+        state.store.remove(0);
+        return state.store.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveItemsAtHead(Items state) {
+        state.store.addAll(0, state.range);
+        state.store.removeRange(0, RANGE);
+        return state.store.size();
+    }
+
+    @Benchmark
+    public int addAndRemoveItemsAtMiddle(Items state) {
+        int position = state.size / 2;
+        state.store.addAll(position, state.range);
+        state.store.removeRange(position, position + RANGE);
+        return state.store.size();
+    }
+
+    @Benchmark
+    public int clearAndRefill(Items state) {
+        state.store.clear();
+        state.store.addAll(state.items);
+        return state.store.size();
+    }
+
+    @Benchmark
+    public Integer getItemAtMiddle(Items state) {
+        return state.store.get(state.size / 2);
+    }
+
+    @Benchmark
+    public int indexOfLast(Items state) {
+        return state.store.indexOf(state.lastItem);
+    }
+
+    @Benchmark
+    public int indexOfMissing(Items state) {
+        return state.store.indexOf(state.missingItem);
+    }
+
+    @Benchmark
+    public int removeAndRestoreMiddleItem(Items state) {
+        // The path of removeItem(T), the item is looked up before being removed
+        int position = state.store.indexOf(state.middleItem);
+        state.store.remove(position);
+        state.store.add(position, state.middleItem);
+        return position;
+    }
+
+    @Benchmark
+    public List<Integer> retainItems(Items state) {
+        return new ArrayList<>(state.store.getItems());
+    }
+
+    static List<Integer> createStorage(String storage, List<Integer> items) {
+        switch (storage) {
+            case "chunked":
+                return new ChunkedList<>(items);
+
+            case "deque":
+                return new CircularArrayList<>(items);
+
+            default:
+                return new ArrayList<>(items);
+        }
+    }
+
+    static List<Integer> createItems(int start, int count) {
+        List<Integer> items = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            items.add(start + i);
+        }
+
+        return items;
+    }
+}
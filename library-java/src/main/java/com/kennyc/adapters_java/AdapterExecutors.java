@@ -0,0 +1,91 @@
+package com.kennyc.adapters_java;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared executors used by the adapters for work that should not run on the main thread
+ */
+final class AdapterExecutors {
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static final Executor MAIN_THREAD = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                command.run();
+            } else {
+                MAIN_HANDLER.post(command);
+            }
+        }
+    };
+
+    private static volatile ExecutorService sBackground;
+
+    private AdapterExecutors() {
+        // No instances
+    }
+
+    /**
+     * Returns an {@link Executor} that runs its commands on the main thread. Commands submitted from the
+     * main thread are run immediately
+     *
+     * @return
+     */
+    static Executor mainThread() {
+        return MAIN_THREAD;
+    }
+
+    /**
+     * Returns the shared background {@link Executor}. Threads run at background priority
+     *
+     * @return
+     */
+    static ExecutorService background() {
+        if (sBackground == null) {
+            synchronized (AdapterExecutors.class) {
+                if (sBackground == null) {
+                    int threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+                    sBackground = Executors.newFixedThreadPool(threads, new BackgroundThreadFactory());
+                }
+            }
+        }
+
+        return sBackground;
+    }
+
+    /**
+     * Returns if the calling thread is the main thread
+     *
+     * @return
+     */
+    static boolean isMainThread() {
+        return Looper.myLooper() == Looper.getMainLooper();
+    }
+
+    private static class BackgroundThreadFactory implements ThreadFactory {
+        private final AtomicInteger mCount = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(@NonNull final Runnable r) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }
+            }, "RecyclerAdapter #" + mCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
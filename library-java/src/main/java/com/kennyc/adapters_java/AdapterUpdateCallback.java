@@ -0,0 +1,38 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+/**
+ * {@link ListUpdateCallback} that forwards updates to a {@link RecyclerView.Adapter}
+ */
+final class AdapterUpdateCallback implements ListUpdateCallback {
+
+    @NonNull
+    private final RecyclerView.Adapter<?> mAdapter;
+
+    AdapterUpdateCallback(@NonNull RecyclerView.Adapter<?> adapter) {
+        mAdapter = adapter;
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        mAdapter.notifyItemRangeInserted(position, count);
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        mAdapter.notifyItemRangeRemoved(position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        mAdapter.notifyItemMoved(fromPosition, toPosition);
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        mAdapter.notifyItemRangeChanged(position, count, payload);
+    }
+}
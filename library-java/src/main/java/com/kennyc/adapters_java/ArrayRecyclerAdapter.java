@@ -3,24 +3,40 @@ package com.kennyc.adapters_java;
 import android.content.Context;
 import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
 import android.widget.TextView;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * {@link android.support.v7.widget.RecyclerView.Adapter} for rendering simple data like {@link ArrayAdapter}
  */
-public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerAdapter.SimpleTextViewHolder> {
+public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerAdapter.SimpleTextViewHolder> implements Filterable {
+    /**
+     * Payload used by {@link #updateItem(int, Object)}. The existing {@link SimpleTextViewHolder} is rebound in place
+     */
+    public static final Object PAYLOAD_TEXT = new Object();
+
+    private static final int[] EMPTY_POSITIONS = new int[0];
+
     protected final String TAG = getClass().getSimpleName();
     private final List<T> mItems = new ArrayList<>();
 
@@ -35,6 +51,52 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
     @Nullable
     private View.OnClickListener mClickListener = null;
 
+    private final UpdateBatch mUpdates = new UpdateBatch(new AdapterUpdateCallback(this));
+
+    @Nullable
+    private ItemIdProvider<T> mIdProvider;
+
+    @Nullable
+    private ItemFormatter<T> mFormatter;
+
+    @Nullable
+    private LruCache<T, CharSequence> mFormattedText;
+
+    @Nullable
+    private TextPrecomputer<T> mTextPrecomputer;
+
+    // Number of items on each side of a bound position whose text is precomputed
+    private int mPrecomputeDistance = 0;
+
+    @Nullable
+    private ItemMatcher<T> mMatcher;
+
+    @Nullable
+    private QueryFilter mFilter;
+
+    // All items while a filter is applied, mItems then only holds the matching items. Null when no filter is applied
+    @Nullable
+    private List<T> mUnfilteredItems;
+
+    // Immutable copy of the unfiltered items that filter runs read from, recreated after the items change
+    @Nullable
+    private List<T> mFilterSnapshot;
+
+    // Positions in the unfiltered items of the displayed items in ascending order, while a filter is applied
+    @NonNull
+    private int[] mShownPositions = EMPTY_POSITIONS;
+
+    private int mShownCount = 0;
+
+    // Query and matcher of the displayed items, while a filter is applied
+    @NonNull
+    private String mShownQuery = "";
+
+    @Nullable
+    private ItemMatcher<T> mShownMatcher;
+
+    // Incremented for every filter request, used to stop runs for previous queries
+    private volatile int mFilterGeneration = 0;
 
     /**
      * Constructor for creating a {@link ArrayAdapter}
@@ -115,7 +177,7 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
 
     @Override
     public ArrayRecyclerAdapter.SimpleTextViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        SimpleTextViewHolder vh = new SimpleTextViewHolder(mInflater.inflate(mLayoutResource, parent, false), mTextViewId);
+        SimpleTextViewHolder vh = new SimpleTextViewHolder(ViewHolderWarmer.inflaterForCurrentThread(mInflater).inflate(mLayoutResource, parent, false), mTextViewId);
         vh.itemView.setOnClickListener(mClickListener);
         return vh;
     }
@@ -123,12 +185,423 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
     @Override
     public void onBindViewHolder(ArrayRecyclerAdapter.SimpleTextViewHolder holder, int position) {
         T item = getItem(position);
+        CharSequence text = null;
+
+        if (mTextPrecomputer != null) {
+            mTextPrecomputer.updateParams(holder.textView);
+            text = mTextPrecomputer.get(item);
+            precomputeAround(position);
+        }
+
+        if (text == null) text = getItemText(item);
+
+        // Setting identical text still triggers a measure and layout of the TextView. Only immutable strings are
+        // compared, a reused builder or a spanned text may have changed without being equal to something else
+        if (!(text instanceof String) || !text.equals(holder.boundText)) {
+            holder.textView.setText(text);
+            holder.boundText = text instanceof String ? (String) text : null;
+        }
+    }
+
+    /**
+     * Returns the text displayed for the given item. May be called from a background thread when text precomputation
+     * or filtering is enabled
+     *
+     * @param item The item to return the text for
+     * @return
+     */
+    @NonNull
+    protected CharSequence getItemText(@NonNull T item) {
+        ItemFormatter<T> formatter = mFormatter;
+        LruCache<T, CharSequence> cache = mFormattedText;
+
+        if (formatter != null && cache != null) {
+            CharSequence text = cache.get(item);
+
+            if (text == null) {
+                text = formatter.format(item);
+                cache.put(item, text);
+            }
+
+            return text;
+        }
+
+        return item instanceof CharSequence ? (CharSequence) item : item.toString();
+    }
+
+    /**
+     * Sets the {@link ItemFormatter} used to convert items to text. Formatted text is kept in a cache of the given size
+     * so items scrolled back into view are not formatted again. Cached text is discarded when the adapter adds,
+     * replaces or removes the item, items that change in place must be replaced with {@link #updateItem(int, Object)}
+     *
+     * @param formatter The formatter, null to use {@link Object#toString()}
+     * @param cacheSize Maximum number of formatted texts to keep
+     */
+    public void setItemFormatter(@Nullable ItemFormatter<T> formatter, int cacheSize) {
+        mFormatter = formatter;
+        mFormattedText = formatter != null ? new LruCache<T, CharSequence>(cacheSize) : null;
+        if (mTextPrecomputer != null) mTextPrecomputer.clear();
+    }
+
+    /**
+     * Returns the number of times formatted text was found in the cache
+     *
+     * @return
+     */
+    public int getFormatterHitCount() {
+        return mFormattedText != null ? mFormattedText.hitCount() : 0;
+    }
+
+    /**
+     * Returns the number of times an item had to be formatted
+     *
+     * @return
+     */
+    public int getFormatterMissCount() {
+        return mFormattedText != null ? mFormattedText.missCount() : 0;
+    }
+
+    private void forgetText(@Nullable T item) {
+        if (item == null) return;
+        if (mFormattedText != null) mFormattedText.remove(item);
+        if (mTextPrecomputer != null) mTextPrecomputer.invalidate(item);
+    }
+
+    private void forgetText(@NonNull List<T> items) {
+        if (mFormattedText == null && mTextPrecomputer == null) return;
+
+        for (int i = 0; i < items.size(); i++) {
+            forgetText(items.get(i));
+        }
+    }
+
+    /**
+     * Enables converting items to text and measuring it on a background thread before they are bound. When an item
+     * is bound, the text of the items within the given distance of it is precomputed so the bind only has to set the
+     * result. Items are used as cache keys and must not change their text without {@link #updateItem(int, Object)}
+     *
+     * @param distance  Number of items on each side of a bound item to precompute
+     * @param cacheSize Maximum number of precomputed texts to keep
+     */
+    public void enableTextPrecompute(int distance, int cacheSize) {
+        mPrecomputeDistance = distance;
+        mTextPrecomputer = new TextPrecomputer<>(new TextPrecomputer.Converter<T>() {
+            @NonNull
+            @Override
+            public CharSequence convert(@NonNull T item) {
+                return getItemText(item);
+            }
+        }, cacheSize);
+    }
+
+    /**
+     * Disables text precomputation enabled with {@link #enableTextPrecompute(int, int)}
+     */
+    public void disableTextPrecompute() {
+        if (mTextPrecomputer != null) mTextPrecomputer.clear();
+        mTextPrecomputer = null;
+    }
+
+    private void precomputeAround(int position) {
+        int start = Math.max(0, position - mPrecomputeDistance);
+        int end = Math.min(mItems.size(), position + mPrecomputeDistance + 1);
+        mTextPrecomputer.schedule(mItems.subList(start, end), AdapterExecutors.background());
+    }
+
+    /**
+     * Sets the {@link ItemMatcher} used by {@link #filter(CharSequence)}. By default an item matches if its text,
+     * see {@link #getItemText(Object)}, or any of its space separated words starts with the query, ignoring case
+     *
+     * @param matcher The matcher, null to use the default matching
+     */
+    @MainThread
+    public void setItemMatcher(@Nullable ItemMatcher<T> matcher) {
+        mMatcher = matcher;
+    }
+
+    /**
+     * Returns a {@link Filter} that matches the items on the {@link Filter}'s worker thread, like
+     * {@link #filter(CharSequence)}. The count of its results is the number of matching items, which are displayed
+     * once the {@link Filter} publishes its results
+     *
+     * @return
+     */
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        if (mFilter == null) mFilter = new QueryFilter();
+        return mFilter;
+    }
+
+    /**
+     * Filters the items on a background thread, only the items matching the query will be displayed. When the query
+     * extends the query currently displayed, only the displayed items are matched. Runs for previous queries are
+     * stopped and the result is published as the range insertions and removals between the displayed and matching
+     * items. While filtered, positions refer to the displayed items. Added items are also added to the unfiltered
+     * items and only displayed if they match the query, removed items are removed from the unfiltered items
+     *
+     * @param query The query, null or empty to display all items
+     */
+    @MainThread
+    public void filter(@Nullable CharSequence query) {
+        final FilterRequest<T> request = prepareFilter(query);
+        if (request.source == null) return;
+
+        AdapterExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final FilterResult<T> result = runFilter(request);
+                if (result == null) return;
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        publishFilterResult(result);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Captures what a filter run for the query reads, stopping runs for previous queries
+     *
+     * @param query The query, null or empty to display all items
+     * @return The request. Its source is null if the query does not change the displayed items
+     */
+    @MainThread
+    @NonNull
+    private FilterRequest<T> prepareFilter(@Nullable CharSequence query) {
+        int generation = ++mFilterGeneration;
+        String normalized = query != null ? query.toString().toLowerCase(Locale.getDefault()) : "";
+
+        if (normalized.isEmpty() && mUnfilteredItems == null) {
+            return new FilterRequest<>(null, normalized, null, null, generation, mItems.size());
+        }
+
+        // The displayed positions are kept in sync with the unfiltered items, so they are valid for a new snapshot too
+        ItemMatcher<T> matcher = mMatcher;
+        int[] base = mUnfilteredItems != null && mShownMatcher == matcher && normalized.startsWith(mShownQuery)
+                ? Arrays.copyOf(mShownPositions, mShownCount) : null;
+
+        return new FilterRequest<>(getFilterSnapshot(), normalized, matcher, base, generation, mItems.size());
+    }
+
+    @NonNull
+    private List<T> getFilterSnapshot() {
+        if (mFilterSnapshot == null) {
+            mFilterSnapshot = Collections.unmodifiableList(new ArrayList<>(mUnfilteredItems != null ? mUnfilteredItems : mItems));
+        }
+
+        return mFilterSnapshot;
+    }
+
+    @Nullable
+    private FilterResult<T> runFilter(@NonNull FilterRequest<T> request) {
+        List<T> source = request.source;
+        int[] base = request.base;
+        int candidates = base != null ? base.length : source.size();
+        int[] positions = new int[candidates];
+        int count = 0;
+
+        for (int i = 0; i < candidates; i++) {
+            if ((i & 0xFF) == 0 && request.generation != mFilterGeneration) return null;
+            int position = base != null ? base[i] : i;
+
+            if (matches(source.get(position), request.query, request.matcher)) {
+                positions[count++] = position;
+            }
+        }
+
+        return new FilterResult<>(source, request.query, request.matcher, positions, count, request.generation);
+    }
+
+    private boolean matches(@Nullable T item, @NonNull String query, @Nullable ItemMatcher<T> matcher) {
+        if (query.isEmpty()) return true;
+        if (item == null) return false;
+        return matcher != null ? matcher.matches(item, query) : matchesWordPrefix(getItemText(item).toString(), query);
+    }
+
+    private static boolean matchesWordPrefix(@NonNull String text, @NonNull String query) {
+        int length = query.length();
+        if (text.regionMatches(true, 0, query, 0, length)) return true;
+
+        for (int space = text.indexOf(' '); space >= 0; space = text.indexOf(' ', space + 1)) {
+            if (text.regionMatches(true, space + 1, query, 0, length)) return true;
+        }
+
+        return false;
+    }
+
+    @MainThread
+    private void publishFilterResult(@NonNull FilterResult<T> result) {
+        if (result.generation != mFilterGeneration) return;
+
+        if (result.source != mFilterSnapshot) {
+            // The items changed while filtering, filter the current items instead
+            filter(result.query);
+            return;
+        }
 
-        if (item instanceof CharSequence) {
-            holder.textView.setText((CharSequence) item);
+        // The snapshot is unchanged, so it holds the same items as the current unfiltered items
+        List<T> source = result.source;
+        boolean wasFiltered = mUnfilteredItems != null;
+        int[] oldPositions = mShownPositions;
+        int oldCount = wasFiltered ? mShownCount : source.size();
+
+        if (result.query.isEmpty()) {
+            mUnfilteredItems = null;
+            mShownPositions = EMPTY_POSITIONS;
+            mShownCount = 0;
+            mShownQuery = "";
+            mShownMatcher = null;
         } else {
-            holder.textView.setText(item.toString());
+            if (!wasFiltered) mUnfilteredItems = new ArrayList<>(source);
+            mShownPositions = result.positions;
+            mShownCount = result.count;
+            mShownQuery = result.query;
+            mShownMatcher = result.matcher;
         }
+
+        // Both the displayed and the matching items are ordered subsets of the unfiltered items, so a single walk
+        // over their positions yields the insertions and removals between them
+        int oldIndex = 0;
+        int newIndex = 0;
+        int adapterPosition = 0;
+        mUpdates.begin();
+
+        try {
+            mItems.clear();
+
+            while (oldIndex < oldCount || newIndex < result.count) {
+                int oldPosition = oldIndex < oldCount ? (wasFiltered ? oldPositions[oldIndex] : oldIndex) : Integer.MAX_VALUE;
+                int newPosition = newIndex < result.count ? result.positions[newIndex] : Integer.MAX_VALUE;
+
+                if (oldPosition == newPosition) {
+                    mItems.add(source.get(newPosition));
+                    adapterPosition++;
+                    oldIndex++;
+                    newIndex++;
+                } else if (oldPosition < newPosition) {
+                    mUpdates.onRemoved(adapterPosition, 1);
+                    oldIndex++;
+                } else {
+                    mItems.add(source.get(newPosition));
+                    mUpdates.onInserted(adapterPosition, 1);
+                    adapterPosition++;
+                    newIndex++;
+                }
+            }
+        } finally {
+            mUpdates.commit();
+        }
+    }
+
+    /**
+     * Returns the position in the unfiltered items that an item inserted at the given displayed position goes to
+     *
+     * @param position The displayed position
+     * @return
+     */
+    private int toUnfilteredInsertPosition(int position) {
+        if (position < 0 || position > mShownCount) {
+            throw new IndexOutOfBoundsException("Invalid position " + position + ", size is " + mShownCount);
+        }
+
+        if (position < mShownCount) return mShownPositions[position];
+        return mShownCount > 0 ? mShownPositions[mShownCount - 1] + 1 : mUnfilteredItems.size();
+    }
+
+    /**
+     * Inserts items into the unfiltered items while a filter is applied. Only the items matching the displayed
+     * query are displayed, at the given position
+     *
+     * @param position           The displayed position to insert the matching items at
+     * @param unfilteredPosition The position in the unfiltered items to insert the items at
+     * @param items              The items to insert
+     */
+    private void insertFiltered(int position, int unfilteredPosition, @NonNull List<T> items) {
+        int count = items.size();
+        mUnfilteredItems.addAll(unfilteredPosition, items);
+        for (int i = position; i < mShownCount; i++) mShownPositions[i] += count;
+
+        List<T> shown = new ArrayList<>(count);
+        int[] shownPositions = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            T item = items.get(i);
+
+            if (matches(item, mShownQuery, mShownMatcher)) {
+                shownPositions[shown.size()] = unfilteredPosition + i;
+                shown.add(item);
+            }
+        }
+
+        if (shown.isEmpty()) return;
+        int shownCount = shown.size();
+
+        if (mShownCount + shownCount > mShownPositions.length) {
+            mShownPositions = Arrays.copyOf(mShownPositions, Math.max(mShownCount + shownCount, mShownPositions.length * 2));
+        }
+
+        System.arraycopy(mShownPositions, position, mShownPositions, position + shownCount, mShownCount - position);
+        System.arraycopy(shownPositions, 0, mShownPositions, position, shownCount);
+        mShownCount += shownCount;
+        mItems.addAll(position, shown);
+        mUpdates.onInserted(position, shownCount);
+    }
+
+    /**
+     * Removes the unfiltered items of a range of displayed positions while a filter is applied, in a single pass
+     * since they are not necessarily adjacent in the unfiltered items
+     *
+     * @param start Starting displayed position of removal
+     * @param end   Ending displayed position of removal
+     */
+    private void removeFiltered(int start, int end) {
+        if (start >= end) return;
+        int first = mShownPositions[start];
+        int last = mShownPositions[end - 1];
+        int write = first;
+        int next = start;
+
+        for (int read = first; read <= last; read++) {
+            if (read == mShownPositions[next]) {
+                next++;
+            } else {
+                mUnfilteredItems.set(write++, mUnfilteredItems.get(read));
+            }
+        }
+
+        mUnfilteredItems.subList(write, last + 1).clear();
+        int count = end - start;
+
+        for (int i = end; i < mShownCount; i++) {
+            mShownPositions[i - count] = mShownPositions[i] - count;
+        }
+
+        mShownCount -= count;
+    }
+
+    // Called after the items changed, mirroring the change into the unfiltered items is up to the caller
+    private void onItemsChanged() {
+        mFilterSnapshot = null;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mIdProvider != null ? mIdProvider.getItemId(getItem(position)) : RecyclerView.NO_ID;
+    }
+
+    /**
+     * Sets the {@link ItemIdProvider} used for stable ids and enables {@link #setHasStableIds(boolean)}. Must be called
+     * before the adapter is attached to a {@link RecyclerView}
+     *
+     * @param idProvider Provider of item ids, null to disable stable ids
+     */
+    public void setItemIdProvider(@Nullable ItemIdProvider<T> idProvider) {
+        mIdProvider = idProvider;
+        setHasStableIds(idProvider != null);
     }
 
     @Override
@@ -146,8 +619,16 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
      * @param object Object to add to the adapter
      */
     public void addItem(T object) {
+        forgetText(object);
+        onItemsChanged();
+
+        if (mUnfilteredItems != null) {
+            insertFiltered(mItems.size(), mUnfilteredItems.size(), Collections.singletonList(object));
+            return;
+        }
+
         mItems.add(object);
-        notifyItemInserted(mItems.size());
+        mUpdates.onInserted(mItems.size() - 1, 1);
     }
 
     /**
@@ -157,8 +638,16 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
      * @param position Position to add the object
      */
     public void addItem(T object, int position) {
+        forgetText(object);
+        onItemsChanged();
+
+        if (mUnfilteredItems != null) {
+            insertFiltered(position, toUnfilteredInsertPosition(position), Collections.singletonList(object));
+            return;
+        }
+
         mItems.add(position, object);
-        notifyItemRangeInserted(position, 1);
+        mUpdates.onInserted(position, 1);
     }
 
     /**
@@ -171,13 +660,21 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
             return;
         }
 
+        forgetText(items);
+        onItemsChanged();
+
+        if (mUnfilteredItems != null) {
+            insertFiltered(mItems.size(), mUnfilteredItems.size(), items);
+            return;
+        }
+
         int startingSize = 0;
         int endSize = 0;
         startingSize = mItems.size();
         mItems.addAll(items);
 
         endSize = mItems.size();
-        notifyItemRangeInserted(startingSize, endSize);
+        mUpdates.onInserted(startingSize, endSize - startingSize);
     }
 
     /**
@@ -191,8 +688,50 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
             return;
         }
 
+        forgetText(items);
+        onItemsChanged();
+
+        if (mUnfilteredItems != null) {
+            insertFiltered(position, toUnfilteredInsertPosition(position), items);
+            return;
+        }
+
         mItems.addAll(position, items);
-        notifyItemRangeInserted(position, items.size());
+        mUpdates.onInserted(position, items.size());
+    }
+
+    /**
+     * Opens a batch of mutations. Notifications for mutations made until {@link #commitBatch()} is called are
+     * recorded and merged into the smallest set of range notifications. Batches may be nested
+     */
+    @MainThread
+    public void beginBatch() {
+        mUpdates.begin();
+    }
+
+    /**
+     * Closes the batch opened with {@link #beginBatch()}, dispatching the merged notifications if it is the
+     * outermost batch
+     */
+    @MainThread
+    public void commitBatch() {
+        mUpdates.commit();
+    }
+
+    /**
+     * Runs the given mutations inside a batch, see {@link #beginBatch()}
+     *
+     * @param mutations The mutations to run
+     */
+    @MainThread
+    public void batch(@NonNull Runnable mutations) {
+        mUpdates.begin();
+
+        try {
+            mutations.run();
+        } finally {
+            mUpdates.commit();
+        }
     }
 
     /**
@@ -214,7 +753,10 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
      */
     public T removeItem(int position) {
         T removedItem = mItems.remove(position);
-        notifyItemRemoved(position);
+        forgetText(removedItem);
+        if (mUnfilteredItems != null) removeFiltered(position, position + 1);
+        onItemsChanged();
+        mUpdates.onRemoved(position, 1);
         return removedItem;
     }
 
@@ -225,8 +767,12 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
      * @param end   Ending position of removal
      */
     public void removeItems(int start, int end) {
-        mItems.subList(start, end).clear();
-        notifyItemRangeRemoved(start, end - start);
+        List<T> removed = mItems.subList(start, end);
+        forgetText(removed);
+        removed.clear();
+        if (mUnfilteredItems != null) removeFiltered(start, end);
+        onItemsChanged();
+        mUpdates.onRemoved(start, end - start);
     }
 
     /**
@@ -245,17 +791,71 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
     public void clear() {
         int size = mItems.size();
         mItems.clear();
-        notifyItemRangeRemoved(0, size);
+        if (mUnfilteredItems != null) {
+            mUnfilteredItems.clear();
+            mShownCount = 0;
+        }
+
+        onItemsChanged();
+        if (mFormattedText != null) mFormattedText.evictAll();
+        if (mTextPrecomputer != null) mTextPrecomputer.clear();
+        mUpdates.onRemoved(0, size);
     }
 
     /**
      * Returns the entire list. This is <b><i>not</i></b> a copy of the list. If a copy of the list is
-     * needed, see {@link #retainItems()}
+     * needed, see {@link #retainItems()}. While a filter is applied, the unfiltered items are returned, including the
+     * ones that are not displayed, so positions in it do not match adapter positions
      *
      * @return The entire list of items in the adapter
      */
     protected List<T> getAllItems() {
-        return mItems;
+        return mUnfilteredItems != null ? mUnfilteredItems : mItems;
+    }
+
+    /**
+     * Replaces the item at the given position. The existing {@link SimpleTextViewHolder} is rebound in place and its
+     * text is only set if it changed
+     *
+     * @param position The position of the item to replace
+     * @param object   The new item
+     * @return The item that was replaced
+     */
+    public T updateItem(int position, T object) {
+        return updateItem(position, object, PAYLOAD_TEXT);
+    }
+
+    /**
+     * Replaces the item at the given position, {@link #notifyItemChanged(int, Object)} will be called with the payload.
+     * While a filter is applied, a new item not matching it stays in the unfiltered items but is no longer displayed,
+     * {@link #notifyItemRemoved(int)} is called instead
+     *
+     * @param position The position of the item to replace
+     * @param object   The new item
+     * @param payload  Describes what changed in the item, null for a full rebind
+     * @return The item that was replaced
+     */
+    public T updateItem(int position, T object, @Nullable Object payload) {
+        T oldItem = mItems.set(position, object);
+        forgetText(oldItem);
+        onItemsChanged();
+        forgetText(object);
+
+        if (mUnfilteredItems != null) {
+            mUnfilteredItems.set(mShownPositions[position], object);
+
+            if (!matches(object, mShownQuery, mShownMatcher)) {
+                // Hidden like the filter would, the unfiltered positions of the other items are unchanged
+                mItems.remove(position);
+                System.arraycopy(mShownPositions, position + 1, mShownPositions, position, mShownCount - position - 1);
+                mShownCount--;
+                mUpdates.onRemoved(position, 1);
+                return oldItem;
+            }
+        }
+
+        mUpdates.onChanged(position, 1, payload);
+        return oldItem;
     }
 
     /**
@@ -269,17 +869,137 @@ public class ArrayRecyclerAdapter<T> extends RecyclerView.Adapter<ArrayRecyclerA
     }
 
     /**
-     * Returns an ArrayList of the items in the adapter, used for saving the items for configuration changes
+     * Returns an ArrayList of the items in the adapter, used for saving the items for configuration changes. While a
+     * filter is applied, the unfiltered items are returned so the items that are not displayed are kept as well
      *
      * @return A copy of the items in the adapter
      */
     public ArrayList<T> retainItems() {
-        return new ArrayList<>(mItems);
+        return new ArrayList<>(mUnfilteredItems != null ? mUnfilteredItems : mItems);
+    }
+
+    /**
+     * {@link Filter} matching the items on its worker thread. What a run reads is captured on the main thread, the
+     * only thread the items are modified on
+     */
+    private class QueryFilter extends Filter {
+        @Override
+        protected FilterResults performFiltering(final CharSequence constraint) {
+            FutureTask<FilterRequest<T>> prepare = new FutureTask<>(new Callable<FilterRequest<T>>() {
+                @Override
+                public FilterRequest<T> call() {
+                    return prepareFilter(constraint);
+                }
+            });
+
+            AdapterExecutors.mainThread().execute(prepare);
+            FilterResults results = new FilterResults();
+            FilterRequest<T> request;
+
+            try {
+                request = prepare.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return results;
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+
+            if (request.source == null) {
+                // All items are already displayed
+                results.count = request.itemCount;
+                return results;
+            }
+
+            FilterResult<T> result = runFilter(request);
+
+            if (result != null) {
+                results.values = result;
+                results.count = result.count;
+            }
+
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            if (results.values != null) publishFilterResult((FilterResult<T>) results.values);
+        }
+    }
+
+    /**
+     * What a filter run reads, captured on the main thread
+     */
+    private static class FilterRequest<T> {
+        // Immutable snapshot of the unfiltered items, null if the query does not change the displayed items
+        @Nullable
+        final List<T> source;
+
+        @NonNull
+        final String query;
+
+        @Nullable
+        final ItemMatcher<T> matcher;
+
+        // Positions of the displayed items when only they need to be matched, null to match all items
+        @Nullable
+        final int[] base;
+
+        final int generation;
+
+        // Number of items displayed when the request was made
+        final int itemCount;
+
+        FilterRequest(@Nullable List<T> source, @NonNull String query, @Nullable ItemMatcher<T> matcher, @Nullable int[] base,
+                      int generation, int itemCount) {
+            this.source = source;
+            this.query = query;
+            this.matcher = matcher;
+            this.base = base;
+            this.generation = generation;
+            this.itemCount = itemCount;
+        }
+    }
+
+    /**
+     * Positions of the items of an unfiltered snapshot that matched a query, in ascending order
+     */
+    private static class FilterResult<T> {
+        @NonNull
+        final List<T> source;
+
+        @NonNull
+        final String query;
+
+        @Nullable
+        final ItemMatcher<T> matcher;
+
+        @NonNull
+        final int[] positions;
+
+        final int count;
+
+        final int generation;
+
+        FilterResult(@NonNull List<T> source, @NonNull String query, @Nullable ItemMatcher<T> matcher, @NonNull int[] positions,
+                     int count, int generation) {
+            this.source = source;
+            this.query = query;
+            this.matcher = matcher;
+            this.positions = positions;
+            this.count = count;
+            this.generation = generation;
+        }
     }
 
     protected static class SimpleTextViewHolder extends RecyclerView.ViewHolder {
         public TextView textView;
 
+        // String last set by the adapter, used to skip setting identical text. Null after setting any other text
+        @Nullable
+        String boundText;
+
         public SimpleTextViewHolder(View view, @IdRes int textViewId) {
             super(view);
             if (textViewId == 0) {
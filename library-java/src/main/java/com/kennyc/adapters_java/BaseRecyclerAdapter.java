@@ -6,29 +6,98 @@ import android.support.annotation.CallSuper;
 import android.support.annotation.ColorInt;
 import android.support.annotation.ColorRes;
 import android.support.annotation.DimenRes;
+import android.support.annotation.IntDef;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.PluralsRes;
 import android.support.annotation.StringRes;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.SortedList;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 
 public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
 
-    protected final String TAG = getClass().getSimpleName();
+    /**
+     * Items are stored in an {@link ArrayList}
+     */
+    public static final int STORAGE_ARRAY_LIST = 0;
+
+    /**
+     * Items are stored in a {@link ChunkedList}, for huge lists modified in the middle
+     */
+    public static final int STORAGE_CHUNKED = 1;
+
+    /**
+     * Items are stored in a {@link CircularArrayList}, for lists that grow at the head
+     */
+    public static final int STORAGE_DEQUE = 2;
 
-    private List<T> mItems;
+    // The adapter uses the lists it is given as they are
+    private static final int STORAGE_CALLER = -1;
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({STORAGE_ARRAY_LIST, STORAGE_CHUNKED, STORAGE_DEQUE})
+    public @interface Storage {
+    }
+
+    protected final String TAG = getClass().getSimpleName();
 
     private LayoutInflater mInflater;
 
     private Resources mResources;
 
+    @NonNull
+    private ItemDiffCallback<T> mDiffCallback = ItemDiffCallback.equality();
+
+    @Nullable
+    private Executor mDiffExecutor;
+
+    private final UpdateBatch mUpdates = new UpdateBatch(new AdapterUpdateCallback(this));
+
+    // The items with their indexes, notifying mUpdates of every change
+    private final ItemStore<T> mItems;
+
+    // Incremented for every submitted list, used to drop diffs that were superseded by a newer list
+    private volatile int mDiffGeneration = 0;
+
+    // Storage the adapter copies lists passed to submitList(List) into
+    private int mStorage = STORAGE_CALLER;
+
+    // Storage of the items in sorted mode, the list of mItems is then a read only view of it
+    @Nullable
+    private SortedList<T> mSortedItems;
+
+    @Nullable
+    private SortedCallback mSortedCallback;
+
+    // Set while the sorted items are replaced by a change that is notified as a whole
+    private boolean mSortedSilent = false;
+
+    // Payload of the update being applied to mSortedItems, reported with its change notification
+    @Nullable
+    private Object mSortedPayload;
+
+    @Nullable
+    private PrefetchScheduler<T> mPrefetchScheduler;
+
+    @Nullable
+    private Executor mPrefetchExecutor;
+
     /**
      * Simple constructor for creating a BaseRecyclerAdapter
      *
@@ -38,21 +107,60 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      *                   needs to be created first with {@link #addItems(List)}
      */
     public BaseRecyclerAdapter(Context context, @Nullable List<T> collection) {
-        mItems = collection;
+        mItems = new ItemStore<>(collection, mUpdates);
         mInflater = LayoutInflater.from(context);
         mResources = context.getResources();
     }
 
+    /**
+     * Constructor for creating a BaseRecyclerAdapter that stores its items in the given type of list instead of the
+     * caller's list. Lists passed to {@link #submitList(List)} are copied into the same type of list
+     *
+     * @param context    The context the adapter is running in
+     * @param storage    The type of list to store the items in
+     * @param collection Items to populate the adapter with, can be null
+     */
+    public BaseRecyclerAdapter(Context context, @Storage int storage, @Nullable Collection<T> collection) {
+        this(context, createItemList(storage, collection));
+        mStorage = storage;
+    }
+
+    /**
+     * Constructor for creating a BaseRecyclerAdapter that keeps its items sorted. Items are inserted, located and
+     * removed by binary search, bulk additions are merged into range notifications and an item whose sort key
+     * changed is moved to its new position with {@link #repositionItem(int, Object)}. Positions passed to
+     * {@link #addItem(Object, int)} and {@link #addItems(List, int)} are not supported, as are modifications of the
+     * list returned by {@link #getAllItems()}. Items comparing as equal are considered the same item if
+     * {@link ItemDiffCallback#areItemsTheSame(Object, Object)} returns true, see
+     * {@link #setItemDiffCallback(ItemDiffCallback)}
+     *
+     * @param context    The context the adapter is running in
+     * @param itemClass  The class of the items
+     * @param comparator The order of the items
+     * @param collection Items to populate the adapter with, can be null
+     */
+    public BaseRecyclerAdapter(Context context, @NonNull Class<T> itemClass, @NonNull Comparator<? super T> comparator, @Nullable Collection<T> collection) {
+        this(context, null);
+        mSortedCallback = new SortedCallback(comparator);
+        mSortedItems = new SortedList<>(itemClass, mSortedCallback);
+        mItems.setItems(new SortedListView<>(mSortedItems));
+        if (collection != null && !collection.isEmpty()) mSortedItems.addAll(collection);
+    }
+
     /**
      * Adds an item to the list, {@link #notifyItemRangeInserted(int, int)} will be called
      *
      * @param object Object to add to the adapter
      */
     public void addItem(T object) {
-        // An exception is thrown instead of creating a List object since the type of list in unknown
-        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        cancelPendingDiff();
+
+        if (mSortedItems != null) {
+            mSortedItems.add(object);
+            return;
+        }
+
         mItems.add(object);
-        notifyItemInserted(mItems.size());
     }
 
     /**
@@ -62,10 +170,9 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @param position Position to add the object
      */
     public void addItem(T object, int position) {
-        // An exception is thrown instead of creating a List object since the type of list in unknown
-        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        if (mSortedItems != null) throw new UnsupportedOperationException("Positions are defined by the comparator in sorted mode");
+        cancelPendingDiff();
         mItems.add(position, object);
-        notifyItemRangeInserted(position, 1);
     }
 
     /**
@@ -78,18 +185,21 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
             return;
         }
 
-        int startingSize = 0;
-        int endSize = 0;
+        cancelPendingDiff();
 
-        if (mItems == null) {
-            mItems = items;
-        } else {
-            startingSize = mItems.size();
-            mItems.addAll(items);
+        if (mSortedItems != null) {
+            mUpdates.begin();
+
+            try {
+                mSortedItems.addAll(items);
+            } finally {
+                mUpdates.commit();
+            }
+
+            return;
         }
 
-        endSize = mItems.size();
-        notifyItemRangeInserted(startingSize, endSize);
+        mItems.addAll(items);
     }
 
     /**
@@ -103,8 +213,25 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
             return;
         }
 
+        if (mSortedItems != null) throw new UnsupportedOperationException("Positions are defined by the comparator in sorted mode");
+        cancelPendingDiff();
         mItems.addAll(position, items);
-        notifyItemRangeInserted(position, items.size());
+    }
+
+    /**
+     * Sets the maximum number of items the adapter keeps. When adding items takes the adapter past it, the overflow
+     * is removed and {@link #notifyItemRangeRemoved(int, int)} is called. Items added at position 0 evict from the
+     * tail, all other additions evict from the head, and lowering the maximum evicts from the tail. Lists passed to
+     * {@link #submitList(List)} keep their first items. Evicting from the head is only cheap with
+     * {@link #STORAGE_DEQUE}. Not supported in sorted mode
+     *
+     * @param maxItemCount The maximum number of items, 0 for no limit
+     */
+    @MainThread
+    public void setMaxItemCount(int maxItemCount) {
+        if (maxItemCount < 0) throw new IllegalArgumentException("Max item count must not be negative");
+        if (mSortedItems != null) throw new IllegalStateException("The item count can not be limited in sorted mode");
+        mItems.setMaxItemCount(maxItemCount);
     }
 
     /**
@@ -114,12 +241,8 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return If the object was removed
      */
     public boolean removeItem(T object) {
-        if (mItems != null) {
-            int position = mItems.indexOf(object);
-            return position >= 0 && removeItem(position) != null;
-        }
-
-        return false;
+        int position = indexOf(object);
+        return position >= 0 && removeItem(position) != null;
     }
 
     /**
@@ -129,10 +252,14 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return The item removed
      */
     public T removeItem(int position) {
-        if (mItems != null) {
-            T removedItem = mItems.remove(position);
-            notifyItemRemoved(position);
-            return removedItem;
+        if (mSortedItems != null) {
+            cancelPendingDiff();
+            return mSortedItems.removeItemAt(position);
+        }
+
+        if (mItems.getItems() != null) {
+            cancelPendingDiff();
+            return mItems.remove(position);
         }
 
         return null;
@@ -145,8 +272,316 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @param end   Ending position of removal
      */
     public void removeItems(int start, int end) {
-        mItems.subList(start, end).clear();
-        notifyItemRangeRemoved(start, end - start);
+        cancelPendingDiff();
+
+        if (mSortedItems != null) {
+            if (start >= end) return;
+            // SortedList only removes single items, so the remaining items are put back in a single pass instead
+            List<T> items = mItems.getItems();
+            List<T> remaining = new ArrayList<>(items.size() - (end - start));
+            remaining.addAll(items.subList(0, start));
+            remaining.addAll(items.subList(end, items.size()));
+            replaceSortedItems(remaining);
+            mUpdates.onRemoved(start, end - start);
+            return;
+        }
+
+        mItems.removeRange(start, end);
+    }
+
+    /**
+     * Opens a batch of mutations. Notifications for mutations made until {@link #commitBatch()} is called are
+     * recorded and merged into the smallest set of range notifications. Batches may be nested
+     */
+    @MainThread
+    public void beginBatch() {
+        mUpdates.begin();
+    }
+
+    /**
+     * Closes the batch opened with {@link #beginBatch()}, dispatching the merged notifications if it is the
+     * outermost batch
+     */
+    @MainThread
+    public void commitBatch() {
+        mUpdates.commit();
+    }
+
+    /**
+     * Runs the given mutations inside a batch, see {@link #beginBatch()}
+     *
+     * @param mutations The mutations to run
+     */
+    @MainThread
+    public void batch(@NonNull Runnable mutations) {
+        mUpdates.begin();
+
+        try {
+            mutations.run();
+        } finally {
+            mUpdates.commit();
+        }
+    }
+
+    /**
+     * Sets the {@link ItemDiffCallback} used by {@link #submitList(List)} to compare items. Defaults to
+     * {@link ItemDiffCallback#equality()}
+     *
+     * @param callback The callback used to compare items
+     */
+    public void setItemDiffCallback(@NonNull ItemDiffCallback<T> callback) {
+        mDiffCallback = callback;
+    }
+
+    /**
+     * Sets the {@link Executor} that {@link #submitList(List)} computes differences on. Null will use the shared
+     * background executor
+     *
+     * @param executor The executor to compute differences on
+     */
+    public void setDiffExecutor(@Nullable Executor executor) {
+        mDiffExecutor = executor;
+    }
+
+    /**
+     * Sets a {@link Prefetcher} called for the items ahead of the bound positions in the direction the list is
+     * scrolling. Items are prefetched nearest first on a background thread, an item is not prefetched again while it
+     * stays near the bound positions and items that are no longer ahead are dropped if their prefetch has not
+     * started. Items are compared with {@link Object#equals(Object)}
+     *
+     * @param prefetcher    The prefetcher to call, null to stop prefetching
+     * @param distance      Number of positions ahead of the bound position to prefetch
+     * @param maxConcurrent Maximum number of items prefetched at the same time
+     */
+    @MainThread
+    public void setPrefetcher(@Nullable Prefetcher<T> prefetcher, int distance, int maxConcurrent) {
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
+        mPrefetchScheduler = null;
+        if (prefetcher == null) return;
+
+        mPrefetchScheduler = new PrefetchScheduler<>(prefetcher, new PrefetchScheduler.ItemSource<T>() {
+            @Override
+            public int getItemCount() {
+                return BaseRecyclerAdapter.this.getItemCount();
+            }
+
+            @Nullable
+            @Override
+            public T getPrefetchItem(int position) {
+                return getItem(position);
+            }
+        }, distance, maxConcurrent);
+
+        mPrefetchScheduler.setExecutor(mPrefetchExecutor);
+    }
+
+    /**
+     * Sets the {@link Executor} items are prefetched on. Null will use the shared background executor
+     *
+     * @param executor The executor to prefetch on
+     */
+    public void setPrefetchExecutor(@Nullable Executor executor) {
+        mPrefetchExecutor = executor;
+        if (mPrefetchScheduler != null) mPrefetchScheduler.setExecutor(executor);
+    }
+
+    /**
+     * Replaces the items in the adapter with the given list. The difference between the current items and the new
+     * list is computed on a background thread and the minimal set of insert, remove, move and change notifications
+     * is dispatched on the main thread. If another list is submitted before the difference is computed, the
+     * previous result is discarded.
+     * <p>
+     * The submitted list becomes the backing list of the adapter once the difference is applied and should not
+     * be modified afterwards, unless a storage type was given at construction in which case it is copied. A null or
+     * empty list is never kept, the adapter continues with an empty {@link ArrayList}. A list longer than the maximum
+     * item count is cut to its first items, see {@link #setMaxItemCount(int)}. Other mutations made while a
+     * difference is being computed will cancel it.
+     * <p>
+     * In sorted mode the list is sorted on the background thread as well and its items are copied into the
+     * {@link SortedList}.
+     *
+     * @param items The new list of items, null will remove all items
+     */
+    @MainThread
+    public void submitList(@Nullable final List<T> items) {
+        final int generation = ++mDiffGeneration;
+        if (items == mItems.getItems()) return;
+
+        if (mSortedItems != null) {
+            submitSortedList(items, generation);
+            return;
+        }
+
+        int maxItemCount = mItems.getMaxItemCount();
+
+        if (items != null && maxItemCount > 0 && items.size() > maxItemCount) {
+            // Only the first items are kept, the submitted list itself is not modified
+            List<T> kept = items.subList(0, maxItemCount);
+            submitList(mStorage != STORAGE_CALLER ? kept : new ArrayList<>(kept));
+            return;
+        }
+
+        if (items == null || items.isEmpty()) {
+            int size = getItemCount();
+            // Null and empty lists, such as Collections.emptyList(), may not be modifiable so they are never kept
+            mItems.setItems(createItemList(mStorage != STORAGE_CALLER ? mStorage : STORAGE_ARRAY_LIST, null));
+            if (size > 0) mUpdates.onRemoved(0, size);
+            return;
+        }
+
+        if (mItems.size() == 0) {
+            mItems.setItems(mStorage != STORAGE_CALLER ? createItemList(mStorage, items) : items);
+            mUpdates.onInserted(0, items.size());
+            return;
+        }
+
+        // Snapshot the current items as they may be modified while the difference is computed
+        final List<T> oldItems = new ArrayList<>(mItems.getItems());
+        final ItemDiffCallback<T> callback = mDiffCallback;
+        final int storage = mStorage;
+        Executor executor = mDiffExecutor != null ? mDiffExecutor : AdapterExecutors.background();
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mDiffGeneration) return;
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new ListDiffCallback<>(oldItems, items, callback));
+                final List<T> newItems = storage != STORAGE_CALLER ? createItemList(storage, items) : items;
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mDiffGeneration) return;
+                        mItems.setItems(newItems);
+                        result.dispatchUpdatesTo(mUpdates);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Replaces the sorted items. The new items are sorted and diffed against the current items on a background
+     * thread, then swapped into the {@link SortedList} without notifications and the difference is dispatched
+     *
+     * @param items      The new items, null will remove all items
+     * @param generation The generation of the submitted list
+     */
+    @MainThread
+    private void submitSortedList(@Nullable final List<T> items, final int generation) {
+        if (items == null || items.isEmpty() || mSortedItems.size() == 0) {
+            // Clearing or filling the sorted list is already a single range notification
+            mUpdates.begin();
+            mSortedItems.beginBatchedUpdates();
+
+            try {
+                mSortedItems.clear();
+                if (items != null) mSortedItems.addAll(items);
+            } finally {
+                mSortedItems.endBatchedUpdates();
+                mUpdates.commit();
+            }
+
+            return;
+        }
+
+        final List<T> oldItems = new ArrayList<>(mItems.getItems());
+        final SortedCallback sortedCallback = mSortedCallback;
+        final ItemDiffCallback<T> callback = mDiffCallback;
+        Executor executor = mDiffExecutor != null ? mDiffExecutor : AdapterExecutors.background();
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mDiffGeneration) return;
+                final List<T> newItems = sortItems(items, sortedCallback);
+                // Both lists are in the same order, so there are no moves to detect
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new ListDiffCallback<>(oldItems, newItems, callback), false);
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mDiffGeneration) return;
+                        replaceSortedItems(newItems);
+                        result.dispatchUpdatesTo(mUpdates);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Returns the items in the order of the {@link SortedList}, without the duplicates it would drop. Like
+     * {@link SortedList#addAll(Collection)}, the last of the same items comparing as equal is kept
+     *
+     * @param items    The items to sort
+     * @param callback The callback of the {@link SortedList}
+     * @return
+     */
+    @NonNull
+    private static <T> List<T> sortItems(@NonNull List<T> items, @NonNull SortedList.Callback<T> callback) {
+        List<T> sorted = new ArrayList<>(items);
+        Collections.sort(sorted, callback);
+        List<T> result = new ArrayList<>(sorted.size());
+        int runStart = 0;
+
+        for (int i = 0; i < sorted.size(); i++) {
+            T item = sorted.get(i);
+            if (!result.isEmpty() && callback.compare(result.get(runStart), item) != 0) runStart = result.size();
+            int same = -1;
+
+            for (int j = runStart; j < result.size() && same < 0; j++) {
+                if (callback.areItemsTheSame(result.get(j), item)) same = j;
+            }
+
+            if (same >= 0) {
+                result.set(same, item);
+            } else {
+                result.add(item);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the sorted items without notifying, the caller notifies the change as a whole
+     *
+     * @param items The new items, sorted and without duplicates
+     */
+    private void replaceSortedItems(@NonNull List<T> items) {
+        mSortedSilent = true;
+
+        try {
+            mSortedItems.clear();
+            mSortedItems.addAll(items);
+        } finally {
+            mSortedSilent = false;
+        }
+
+        mItems.clearIndexes();
+    }
+
+    @NonNull
+    private static <T> List<T> createItemList(@Storage int storage, @Nullable Collection<T> items) {
+        switch (storage) {
+            case STORAGE_CHUNKED:
+                return new ChunkedList<>(items);
+
+            case STORAGE_DEQUE:
+                return new CircularArrayList<>(items);
+
+            case STORAGE_ARRAY_LIST:
+            default:
+                return items != null ? new ArrayList<>(items) : new ArrayList<T>();
+        }
+    }
+
+    /**
+     * Cancels any difference being computed by {@link #submitList(List)}
+     */
+    private void cancelPendingDiff() {
+        mDiffGeneration++;
     }
 
     /**
@@ -156,18 +591,71 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return The index of the item. {@link RecyclerView#NO_POSITION} will be returned if not found
      */
     public int indexOf(T object) {
-        return mItems != null && !mItems.isEmpty() ? mItems.indexOf(object) : RecyclerView.NO_POSITION;
+        if (mSortedItems != null) return mSortedItems.indexOf(object);
+        return mItems.indexOf(object);
+    }
+
+    /**
+     * Enables a hash index of items to their positions, making {@link #indexOf(Object)} and {@link #removeItem(Object)}
+     * constant time on average instead of scanning the list. The index is kept in sync by the adapter's own mutations,
+     * modifying the list returned by {@link #getAllItems()} directly requires calling this method again.
+     * Keys must be unique within the adapter. Not used in sorted mode, where lookups are binary searches.
+     *
+     * @param keyProvider Provider of the key each item is indexed by, null to index by the items themselves
+     */
+    public void enablePositionIndex(@Nullable PositionIndex.KeyProvider<T> keyProvider) {
+        mItems.setPositionIndex(new PositionIndex<>(keyProvider));
+    }
+
+    /**
+     * Disables the index enabled with {@link #enablePositionIndex(PositionIndex.KeyProvider)}
+     */
+    public void disablePositionIndex() {
+        mItems.setPositionIndex(null);
+    }
+
+    /**
+     * Sets the {@link ItemIdProvider} used for stable ids and enables {@link #setHasStableIds(boolean)}. Must be called
+     * before the adapter is attached to a {@link RecyclerView}
+     *
+     * @param idProvider Provider of item ids, null to disable stable ids
+     */
+    public void setItemIdProvider(@Nullable ItemIdProvider<T> idProvider) {
+        mItems.setItemIdIndex(idProvider != null ? new ItemIdIndex<>(idProvider) : null);
+        setHasStableIds(idProvider != null);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        ItemIdIndex<T> itemIdIndex = mItems.getItemIdIndex();
+        return itemIdIndex != null ? itemIdIndex.getIdProvider().getItemId(getItem(position)) : RecyclerView.NO_ID;
+    }
+
+    /**
+     * Returns the position of the item with the given stable id. Requires an {@link ItemIdProvider} to be set with
+     * {@link #setItemIdProvider(ItemIdProvider)}
+     *
+     * @param id The id to search for
+     * @return The position of the item. {@link RecyclerView#NO_POSITION} will be returned if not found
+     */
+    public int getPositionForItemId(long id) {
+        return mItems.positionOfId(id);
     }
 
     /**
      * Removes all items from the list, {@link #notifyItemRangeRemoved(int, int)} will be called
      */
     public void clear() {
-        if (mItems != null) {
-            int size = mItems.size();
-            mItems.clear();
-            notifyItemRangeRemoved(0, size);
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
+
+        if (mSortedItems != null) {
+            cancelPendingDiff();
+            mSortedItems.clear();
+            return;
         }
+
+        cancelPendingDiff();
+        mItems.clear();
     }
 
     /**
@@ -177,7 +665,139 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return The entire list of items in the adapter
      */
     protected List<T> getAllItems() {
-        return mItems;
+        return mItems.getItems();
+    }
+
+    /**
+     * Replaces the item at the given position, {@link #notifyItemChanged(int)} will be called
+     *
+     * @param position The position of the item to replace
+     * @param object   The new item
+     * @return The item that was replaced
+     */
+    public T updateItem(int position, T object) {
+        return updateItem(position, object, null);
+    }
+
+    /**
+     * Replaces the item at the given position, {@link #notifyItemChanged(int, Object)} will be called with the payload.
+     * A non null payload lets the {@link RecyclerView} rebind the existing {@link RecyclerView.ViewHolder} through
+     * {@link #onBindPayloads(RecyclerView.ViewHolder, int, List)} instead of fully rebinding it
+     *
+     * @param position The position of the item to replace
+     * @param object   The new item
+     * @param payload  Describes what changed in the item, null for a full rebind
+     * @return The item that was replaced
+     */
+    public T updateItem(int position, T object, @Nullable Object payload) {
+        cancelPendingDiff();
+
+        if (mSortedItems != null) {
+            T oldItem = mSortedItems.get(position);
+            mSortedPayload = payload;
+
+            try {
+                mSortedItems.updateItemAt(position, object);
+            } finally {
+                mSortedPayload = null;
+            }
+
+            return oldItem;
+        }
+
+        return mItems.set(position, object, payload);
+    }
+
+    /**
+     * Moves the item at the given position to where it belongs after its sort key changed in place. Only one move
+     * and one change notification are dispatched, the other items are left untouched. Only supported in sorted mode,
+     * see {@link #BaseRecyclerAdapter(Context, Class, Comparator, Collection)}
+     *
+     * @param position The current position of the item
+     * @param payload  Describes what changed in the item, null for a full rebind
+     * @return The new position of the item
+     */
+    @MainThread
+    public int repositionItem(int position, @Nullable Object payload) {
+        if (mSortedItems == null) throw new IllegalStateException("Items can only be repositioned in sorted mode");
+        T item = mSortedItems.get(position);
+        updateItem(position, item, payload);
+        return mSortedItems.indexOf(item);
+    }
+
+    /**
+     * Notifies that the backing list inserted items on its own, used by adapters of this library whose list changes
+     * without going through the adapter
+     *
+     * @param position The position the items were inserted at
+     * @param count    The number of items inserted
+     */
+    void dispatchItemsInserted(int position, int count) {
+        mItems.onInserted(position, count);
+    }
+
+    /**
+     * Notifies that the backing list removed items on its own, see {@link #dispatchItemsInserted(int, int)}
+     *
+     * @param position The position of the first item removed
+     * @param count    The number of items removed
+     */
+    void dispatchItemsRemoved(int position, int count) {
+        mItems.onRemoved(position, count);
+    }
+
+    /**
+     * Notifies that the item at the given position changed in place, such as a mutable field being updated
+     *
+     * @param position The position of the item that changed
+     * @param payload  Describes what changed in the item, null for a full rebind
+     */
+    public void notifyItemUpdated(int position, @Nullable Object payload) {
+        mUpdates.onChanged(position, 1, payload);
+    }
+
+    /**
+     * Binds the item at the given position. Non empty payloads are first offered to
+     * {@link #onBindPayloads(RecyclerView.ViewHolder, int, List)}, the holder is fully rebound with
+     * {@link #onBindViewHolder(RecyclerView.ViewHolder, int)} when they are not handled. Overrides should call
+     * through, the {@link Prefetcher} set with {@link #setPrefetcher(Prefetcher, int, int)} follows the positions
+     * bound here
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to bind
+     * @param position The position of the item
+     * @param payloads The payloads of every change since the holder was last bound, empty for a full bind
+     */
+    @Override
+    public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+        onItemBound(position);
+
+        if (payloads.isEmpty() || !onBindPayloads(holder, position, payloads)) {
+            onBindViewHolder(holder, position);
+        }
+    }
+
+    /**
+     * Called before the item at the given position is bound, used by adapters of this library that load data ahead
+     * of binding. Overrides must call through so the {@link Prefetcher} keeps up with the bound positions
+     *
+     * @param position The position being bound
+     */
+    void onItemBound(int position) {
+        if (mPrefetchScheduler != null) mPrefetchScheduler.onBound(position);
+    }
+
+    /**
+     * Called to partially rebind a {@link RecyclerView.ViewHolder} that is already showing the item at the given
+     * position. Subclasses should only update the views affected by the payloads and return true, or return false
+     * for a full rebind with {@link #onBindViewHolder(RecyclerView.ViewHolder, int)}
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to update
+     * @param position The position of the item
+     * @param payloads The payloads of every change since the holder was last bound, never empty
+     * @return If the payloads were handled
+     */
+    protected boolean onBindPayloads(VH holder, int position, @NonNull List<Object> payloads) {
+        return false;
     }
 
     /**
@@ -196,12 +816,12 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return A copy of the items in the adapter
      */
     public ArrayList<T> retainItems() {
-        return new ArrayList<>(mItems);
+        return new ArrayList<>(mItems.getItems());
     }
 
     @Override
     public int getItemCount() {
-        return mItems != null ? mItems.size() : 0;
+        return mItems.size();
     }
 
     /**
@@ -287,6 +907,16 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
         return mResources.getQuantityString(plural, quantity, args);
     }
 
+    /**
+     * Returns the inflater of the adapter, or a copy of it when called off the main thread by a {@link ViewHolderWarmer}
+     *
+     * @return
+     */
+    @NonNull
+    LayoutInflater getLayoutInflater() {
+        return ViewHolderWarmer.inflaterForCurrentThread(mInflater);
+    }
+
     /**
      * Inflates a view from the given layout resource
      *
@@ -295,11 +925,13 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      * @return
      */
     protected View inflateView(@LayoutRes int layoutId, @Nullable ViewGroup parent) {
+        LayoutInflater inflater = getLayoutInflater();
+
         if (parent == null) {
-            return mInflater.inflate(layoutId, null);
+            return inflater.inflate(layoutId, null);
         }
 
-        return mInflater.inflate(layoutId, parent, false);
+        return inflater.inflate(layoutId, parent, false);
     }
 
     /**
@@ -317,8 +949,125 @@ public abstract class BaseRecyclerAdapter<T, VH extends RecyclerView.ViewHolder>
      */
     @CallSuper
     public void onDestroy(boolean clearItems) {
+        cancelPendingDiff();
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
         mResources = null;
         mInflater = null;
-        if (clearItems && mItems != null) mItems.clear();
+        if (clearItems && mSortedItems != null) {
+            mSortedItems.clear();
+        } else if (clearItems && mItems.getItems() != null) {
+            mItems.getItems().clear();
+        }
+
+        mItems.clearIndexes();
+    }
+
+    /**
+     * Forwards the updates of the sorted items to the adapter
+     */
+    private class SortedCallback extends SortedList.Callback<T> {
+        @NonNull
+        private final Comparator<? super T> mComparator;
+
+        SortedCallback(@NonNull Comparator<? super T> comparator) {
+            mComparator = comparator;
+        }
+
+        @Override
+        public int compare(T o1, T o2) {
+            return mComparator.compare(o1, o2);
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            if (mSortedSilent) return;
+            invalidateItemIds(position);
+            mUpdates.onInserted(position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            if (mSortedSilent) return;
+            invalidateItemIds(position);
+            mUpdates.onRemoved(position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            if (mSortedSilent) return;
+            invalidateItemIds(Math.min(fromPosition, toPosition));
+            mUpdates.onMoved(fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count) {
+            if (mSortedSilent) return;
+            invalidateItemIds(position);
+            mUpdates.onChanged(position, count, mSortedPayload);
+        }
+
+        @Override
+        public boolean areContentsTheSame(T oldItem, T newItem) {
+            return mDiffCallback.areContentsTheSame(oldItem, newItem);
+        }
+
+        private void invalidateItemIds(int position) {
+            ItemIdIndex<T> itemIdIndex = mItems.getItemIdIndex();
+            if (itemIdIndex != null) itemIdIndex.invalidateFrom(position);
+        }
+
+        @Override
+        public boolean areItemsTheSame(T item1, T item2) {
+            return mDiffCallback.areItemsTheSame(item1, item2);
+        }
+    }
+
+    private static class ListDiffCallback<T> extends DiffUtil.Callback {
+        private final List<T> mOldItems;
+
+        private final List<T> mNewItems;
+
+        private final ItemDiffCallback<T> mCallback;
+
+        ListDiffCallback(List<T> oldItems, List<T> newItems, ItemDiffCallback<T> callback) {
+            mOldItems = oldItems;
+            mNewItems = newItems;
+            mCallback = callback;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldItems.get(oldItemPosition);
+            T newItem = mNewItems.get(newItemPosition);
+            if (oldItem == null || newItem == null) return oldItem == newItem;
+            return mCallback.areItemsTheSame(oldItem, newItem);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldItems.get(oldItemPosition);
+            T newItem = mNewItems.get(newItemPosition);
+            if (oldItem == null || newItem == null) return oldItem == newItem;
+            return mCallback.areContentsTheSame(oldItem, newItem);
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            T oldItem = mOldItems.get(oldItemPosition);
+            T newItem = mNewItems.get(newItemPosition);
+            if (oldItem == null || newItem == null) return null;
+            return mCallback.getChangePayload(oldItem, newItem);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.util.SparseIntArray;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks which page each bound view holder of a paged adapter shows, so pages shown by a view holder are not dropped.
+ * Used by {@link PagedRecyclerAdapter} and {@link PagedCursorRecyclerAdapter}, not thread safe.
+ */
+final class BoundPages<VH> {
+
+    // Number of bound view holders showing each page
+    private final SparseIntArray mRows = new SparseIntArray();
+
+    // Page each bound view holder is showing
+    private final Map<VH, Integer> mPages = new HashMap<>();
+
+    /**
+     * Sets the page a view holder shows
+     *
+     * @param holder The view holder
+     * @param page   The page it was bound to, -1 once it is recycled
+     * @return If the page it showed before no longer has bound view holders, so pages may be dropped again
+     */
+    boolean setPage(@NonNull VH holder, int page) {
+        Integer previous = page >= 0 ? mPages.put(holder, page) : mPages.remove(holder);
+        if (previous != null && previous == page) return false;
+        if (page >= 0) mRows.put(page, mRows.get(page) + 1);
+        if (previous == null) return false;
+
+        int rows = mRows.get(previous) - 1;
+
+        if (rows > 0) {
+            mRows.put(previous, rows);
+            return false;
+        }
+
+        mRows.delete(previous);
+        return true;
+    }
+
+    /**
+     * Returns if a bound view holder shows the page
+     *
+     * @param page The page to check
+     * @return
+     */
+    boolean isBound(int page) {
+        return mRows.get(page) > 0;
+    }
+
+    void clear() {
+        mRows.clear();
+        mPages.clear();
+    }
+}
@@ -0,0 +1,491 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Collection;
+
+/**
+ * {@link java.util.List} stored as a B+ tree of fixed size chunks. Every node knows the number of items below it, so
+ * positional {@link #get(int)}, {@link #add(int, Object)} and {@link #remove(int)} are O(log n) wherever the position
+ * is, instead of shifting the whole backing array like an {@link java.util.ArrayList}. Range removals drop whole
+ * chunks and subtrees at once. Suited to huge lists that are spliced in the middle, an
+ * {@link java.util.ArrayList} is faster for lists that only grow at the end.
+ * <p>
+ * This class has no dependency on the Android runtime. It is not thread safe and iterating by position costs
+ * O(log n) per item, {@link #indexOf(Object)} and {@link #toArray()} walk the chunks directly.
+ */
+public class ChunkedList<T> extends AbstractList<T> {
+
+    // Maximum number of items in a leaf and of children in a branch
+    static final int CAPACITY = 64;
+
+    // Nodes with fewer entries are merged with a neighbour when possible
+    private static final int MIN_ENTRIES = CAPACITY / 4;
+
+    @NonNull
+    private Node mRoot = new Leaf();
+
+    /**
+     * Creates an empty {@link ChunkedList}
+     */
+    public ChunkedList() {
+    }
+
+    /**
+     * Creates a {@link ChunkedList} holding the given items
+     *
+     * @param items The items to add
+     */
+    public ChunkedList(@Nullable Collection<? extends T> items) {
+        if (items != null) addAll(items);
+    }
+
+    @Override
+    public int size() {
+        return mRoot.count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        Node node = mRoot;
+
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+
+            node = branch.children[child];
+        }
+
+        return (T) ((Leaf) node).items[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        checkIndex(index);
+        Node node = mRoot;
+
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+
+            while (index >= branch.children[child].count) {
+                index -= branch.children[child].count;
+                child++;
+            }
+
+            node = branch.children[child];
+        }
+
+        Leaf leaf = (Leaf) node;
+        T previous = (T) leaf.items[index];
+        leaf.items[index] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        if (index < 0 || index > size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        Node split = insert(mRoot, index, element);
+
+        if (split != null) {
+            Branch root = new Branch();
+            root.children[0] = mRoot;
+            root.children[1] = split;
+            root.size = 2;
+            root.count = mRoot.count + split.count;
+            mRoot = root;
+        }
+
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addAll(int index, Collection<? extends T> items) {
+        if (index < 0 || index > size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+        Object[] array = items.toArray();
+        int added = 0;
+
+        while (added < array.length) {
+            // Fill the free space of the target leaf in one go, a full leaf is split by a regular insert
+            int filled = fill(mRoot, index, array, added);
+
+            if (filled == 0) {
+                add(index, (T) array[added]);
+                filled = 1;
+            } else {
+                modCount++;
+            }
+
+            index += filled;
+            added += filled;
+        }
+
+        return array.length > 0;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index);
+        T removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size());
+        }
+
+        if (fromIndex == toIndex) return;
+        remove(mRoot, fromIndex, toIndex);
+
+        // Drop branches that are left with a single child
+        while (mRoot instanceof Branch && ((Branch) mRoot).size <= 1) {
+            Branch root = (Branch) mRoot;
+            mRoot = root.size == 1 ? root.children[0] : new Leaf();
+        }
+
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        mRoot = new Leaf();
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return indexOf(mRoot, o, 0);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size()];
+        copyTo(mRoot, array, 0);
+        return array;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+    }
+
+    /**
+     * Inserts the item into the subtree
+     *
+     * @return The new right sibling of the node if it had to be split, null otherwise
+     */
+    @Nullable
+    private static Node insert(@NonNull Node node, int index, Object item) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+
+            if (leaf.size < CAPACITY) {
+                leaf.insert(index, item);
+                return null;
+            }
+
+            Leaf right = leaf.splitHalf();
+
+            if (index <= leaf.size) {
+                leaf.insert(index, item);
+            } else {
+                right.insert(index - leaf.size, item);
+            }
+
+            return right;
+        }
+
+        Branch branch = (Branch) node;
+        int child = 0;
+
+        // Positions at the end of a child are inserted into it rather than at the start of the next one
+        while (child < branch.size - 1 && index > branch.children[child].count) {
+            index -= branch.children[child].count;
+            child++;
+        }
+
+        Node split = insert(branch.children[child], index, item);
+        branch.count++;
+        if (split == null) return null;
+
+        if (branch.size < CAPACITY) {
+            branch.insertChild(child + 1, split);
+            return null;
+        }
+
+        Branch right = branch.splitHalf();
+
+        if (child + 1 <= branch.size) {
+            branch.insertChild(child + 1, split);
+        } else {
+            right.insertChild(child + 1 - branch.size, split);
+        }
+
+        branch.count = branch.sumCounts();
+        right.count = right.sumCounts();
+        return right;
+    }
+
+    /**
+     * Inserts as many of the items as fit in the leaf the position falls in, without splitting it
+     *
+     * @return The number of items inserted
+     */
+    private static int fill(@NonNull Node node, int index, Object[] items, int from) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int count = Math.min(CAPACITY - leaf.size, items.length - from);
+            if (count <= 0) return 0;
+            System.arraycopy(leaf.items, index, leaf.items, index + count, leaf.size - index);
+            System.arraycopy(items, from, leaf.items, index, count);
+            leaf.size += count;
+            leaf.count += count;
+            return count;
+        }
+
+        Branch branch = (Branch) node;
+        int child = 0;
+
+        while (child < branch.size - 1 && index > branch.children[child].count) {
+            index -= branch.children[child].count;
+            child++;
+        }
+
+        int count = fill(branch.children[child], index, items, from);
+        branch.count += count;
+        return count;
+    }
+
+    /**
+     * Removes the items between the given positions of the subtree, 0 &lt;= from &lt; to &lt;= node.count
+     */
+    private static void remove(@NonNull Node node, int from, int to) {
+        node.count -= to - from;
+
+        if (node instanceof Leaf) {
+            ((Leaf) node).removeRange(from, to);
+            return;
+        }
+
+        Branch branch = (Branch) node;
+        int offset = 0;
+        int child = 0;
+        int firstTouched = -1;
+
+        while (child < branch.size && offset < to) {
+            Node current = branch.children[child];
+            int start = Math.max(from, offset) - offset;
+            int end = Math.min(to, offset + current.count) - offset;
+            offset += current.count;
+
+            if (start >= end) {
+                child++;
+                continue;
+            }
+
+            if (firstTouched < 0) firstTouched = child;
+
+            if (start == 0 && end == current.count) {
+                // The whole subtree is removed
+                branch.removeChildren(child, child + 1);
+            } else {
+                remove(current, start, end);
+                child++;
+            }
+        }
+
+        // Only the children at either end of the range were partially removed and may have become small
+        int merged = Math.min(firstTouched, branch.size - 1);
+
+        if (merged >= 0) {
+            merged = branch.mergeSmall(merged);
+            if (merged + 1 < branch.size) branch.mergeSmall(merged + 1);
+        }
+    }
+
+    private static int indexOf(@NonNull Node node, Object o, int offset) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+
+            for (int i = 0; i < leaf.size; i++) {
+                if (o == null ? leaf.items[i] == null : o.equals(leaf.items[i])) return offset + i;
+            }
+
+            return -1;
+        }
+
+        Branch branch = (Branch) node;
+
+        for (int i = 0; i < branch.size; i++) {
+            int found = indexOf(branch.children[i], o, offset);
+            if (found >= 0) return found;
+            offset += branch.children[i].count;
+        }
+
+        return -1;
+    }
+
+    private static int copyTo(@NonNull Node node, Object[] array, int offset) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            System.arraycopy(leaf.items, 0, array, offset, leaf.size);
+            return offset + leaf.size;
+        }
+
+        Branch branch = (Branch) node;
+
+        for (int i = 0; i < branch.size; i++) {
+            offset = copyTo(branch.children[i], array, offset);
+        }
+
+        return offset;
+    }
+
+    private abstract static class Node {
+        // Number of items in the subtree
+        int count;
+
+        // Number of items in a leaf, of children in a branch
+        int size;
+    }
+
+    private static final class Leaf extends Node {
+        final Object[] items = new Object[CAPACITY];
+
+        void insert(int index, Object item) {
+            System.arraycopy(items, index, items, index + 1, size - index);
+            items[index] = item;
+            size++;
+            count++;
+        }
+
+        void removeRange(int from, int to) {
+            System.arraycopy(items, to, items, from, size - to);
+            int newSize = size - (to - from);
+
+            for (int i = newSize; i < size; i++) {
+                items[i] = null;
+            }
+
+            size = newSize;
+            count = newSize;
+        }
+
+        @NonNull
+        Leaf splitHalf() {
+            Leaf right = new Leaf();
+            int half = size / 2;
+            right.size = size - half;
+            right.count = right.size;
+            System.arraycopy(items, half, right.items, 0, right.size);
+
+            for (int i = half; i < size; i++) {
+                items[i] = null;
+            }
+
+            size = half;
+            count = half;
+            return right;
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node[] children = new Node[CAPACITY];
+
+        void insertChild(int index, @NonNull Node child) {
+            System.arraycopy(children, index, children, index + 1, size - index);
+            children[index] = child;
+            size++;
+        }
+
+        void removeChildren(int from, int to) {
+            System.arraycopy(children, to, children, from, size - to);
+            int newSize = size - (to - from);
+
+            for (int i = newSize; i < size; i++) {
+                children[i] = null;
+            }
+
+            size = newSize;
+        }
+
+        @NonNull
+        Branch splitHalf() {
+            Branch right = new Branch();
+            int half = size / 2;
+            right.size = size - half;
+            System.arraycopy(children, half, right.children, 0, right.size);
+
+            for (int i = half; i < size; i++) {
+                children[i] = null;
+            }
+
+            size = half;
+            return right;
+        }
+
+        int sumCounts() {
+            int sum = 0;
+
+            for (int i = 0; i < size; i++) {
+                sum += children[i].count;
+            }
+
+            return sum;
+        }
+
+        /**
+         * Merges the child at the given index with a neighbour if it is small and both fit in one node
+         *
+         * @return The index of the child, or of the node it was merged into
+         */
+        int mergeSmall(int index) {
+            Node node = children[index];
+            if (node.size >= MIN_ENTRIES) return index;
+
+            if (index + 1 < size && node.size + children[index + 1].size <= CAPACITY) {
+                mergeInto(node, children[index + 1]);
+                removeChildren(index + 1, index + 2);
+                return index;
+            }
+
+            if (index > 0 && children[index - 1].size + node.size <= CAPACITY) {
+                mergeInto(children[index - 1], node);
+                removeChildren(index, index + 1);
+                return index - 1;
+            }
+
+            return index;
+        }
+
+        private static void mergeInto(@NonNull Node left, @NonNull Node right) {
+            if (left instanceof Leaf) {
+                System.arraycopy(((Leaf) right).items, 0, ((Leaf) left).items, left.size, right.size);
+            } else {
+                System.arraycopy(((Branch) right).children, 0, ((Branch) left).children, left.size, right.size);
+            }
+
+            left.size += right.size;
+            left.count += right.count;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * {@link java.util.List} backed by a circular array. Adding or removing items at either end is amortized O(1) and
+ * {@link #get(int)} stays O(1), positions in between shift whichever side of the list is shorter. Suited to lists
+ * that grow at the head, such as chats and reverse chronological feeds, where an {@link java.util.ArrayList} shifts
+ * every item on each prepend.
+ * <p>
+ * This class has no dependency on the Android runtime and is not thread safe.
+ */
+public class CircularArrayList<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Length is always a power of two so positions wrap with a mask
+    private Object[] mItems;
+
+    // Index in mItems of the first item
+    private int mHead = 0;
+
+    private int mSize = 0;
+
+    /**
+     * Creates an empty {@link CircularArrayList}
+     */
+    public CircularArrayList() {
+        mItems = new Object[MIN_CAPACITY];
+    }
+
+    /**
+     * Creates a {@link CircularArrayList} holding the given items
+     *
+     * @param items The items to add
+     */
+    public CircularArrayList(@Nullable Collection<? extends T> items) {
+        mItems = new Object[capacityFor(items != null ? items.size() : 0)];
+        if (items != null) addAll(items);
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index);
+        return (T) mItems[slot(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T set(int index, T element) {
+        checkIndex(index);
+        int slot = slot(index);
+        T previous = (T) mItems[slot];
+        mItems[slot] = element;
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkPositionIndex(index);
+        openGap(index, 1);
+        mItems[slot(index)] = element;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends T> items) {
+        checkPositionIndex(index);
+        Object[] array = items.toArray();
+        if (array.length == 0) return false;
+        openGap(index, array.length);
+
+        for (int i = 0; i < array.length; i++) {
+            mItems[slot(index + i)] = array[i];
+        }
+
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        T removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > mSize || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + mSize);
+        }
+
+        int count = toIndex - fromIndex;
+        if (count == 0) return;
+
+        if (fromIndex < mSize - toIndex) {
+            // Fewer items before the range, shift them towards the tail
+            move(0, count, fromIndex);
+            clear(0, count);
+            mHead = slot(count);
+        } else {
+            move(toIndex, fromIndex, mSize - toIndex);
+            clear(mSize - count, count);
+        }
+
+        mSize -= count;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        clear(0, mSize);
+        mHead = 0;
+        mSize = 0;
+        modCount++;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int i = 0; i < mSize; i++) {
+            Object item = mItems[slot(i)];
+            if (o == null ? item == null : o.equals(item)) return i;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[mSize];
+        int firstPart = Math.min(mSize, mItems.length - mHead);
+        System.arraycopy(mItems, mHead, array, 0, firstPart);
+        System.arraycopy(mItems, 0, array, firstPart, mSize - firstPart);
+        return array;
+    }
+
+    /**
+     * Makes room for count items at the given position, shifting the shorter side of the list
+     */
+    private void openGap(int index, int count) {
+        if (mSize + count > mItems.length) grow(mSize + count);
+
+        if (index < mSize - index) {
+            mHead = slot(-count);
+            move(count, 0, index);
+        } else {
+            move(index, index + count, mSize - index);
+        }
+
+        mSize += count;
+    }
+
+    /**
+     * Moves count items between positions relative to the head, copying contiguous runs of the array at once
+     */
+    private void move(int from, int to, int count) {
+        int length = mItems.length;
+
+        if (to < from) {
+            // Moving towards the head, copy from the first item so no source is overwritten before it is read
+            for (int done = 0; done < count; ) {
+                int source = slot(from + done);
+                int target = slot(to + done);
+                int run = Math.min(count - done, Math.min(length - source, length - target));
+                System.arraycopy(mItems, source, mItems, target, run);
+                done += run;
+            }
+        } else {
+            for (int remaining = count; remaining > 0; ) {
+                int source = slot(from + remaining - 1);
+                int target = slot(to + remaining - 1);
+                int run = Math.min(remaining, Math.min(source + 1, target + 1));
+                System.arraycopy(mItems, source - run + 1, mItems, target - run + 1, run);
+                remaining -= run;
+            }
+        }
+    }
+
+    // Drops the references to count items starting at the given position relative to the head
+    private void clear(int from, int count) {
+        int start = slot(from);
+        int firstPart = Math.min(count, mItems.length - start);
+        Arrays.fill(mItems, start, start + firstPart, null);
+        Arrays.fill(mItems, 0, count - firstPart, null);
+    }
+
+    private void grow(int required) {
+        Object[] items = new Object[capacityFor(required)];
+        int firstPart = Math.min(mSize, mItems.length - mHead);
+        System.arraycopy(mItems, mHead, items, 0, firstPart);
+        System.arraycopy(mItems, 0, items, firstPart, mSize - firstPart);
+        mItems = items;
+        mHead = 0;
+    }
+
+    private int slot(int index) {
+        return (mHead + index) & (mItems.length - 1);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= mSize) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > mSize) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+
+    private static int capacityFor(int size) {
+        if (size > 1 << 30) throw new OutOfMemoryError("Required array size too large");
+        int capacity = MIN_CAPACITY;
+
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+}
@@ -0,0 +1,141 @@
+package com.kennyc.adapters_java;
+
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Set of cursor columns whose indexes are resolved once per {@link Cursor} instead of on every bind. Columns are
+ * referenced by their position in the array given at creation, accessors read from the current row of the cursor
+ * and do not allocate.
+ * <p>
+ * Projections created with {@link CursorRecyclerAdapter#createProjection(String...)} are updated automatically when
+ * the adapter's cursor is swapped.
+ */
+public class CursorProjection {
+
+    @NonNull
+    private final String[] mColumns;
+
+    @NonNull
+    private final int[] mIndexes;
+
+    @Nullable
+    private Cursor mCursor;
+
+    /**
+     * Creates a {@link CursorProjection}
+     *
+     * @param columns Names of the columns of the projection
+     */
+    public CursorProjection(@NonNull String... columns) {
+        mColumns = columns.clone();
+        mIndexes = new int[columns.length];
+        setCursor(null);
+    }
+
+    /**
+     * Sets the cursor the projection reads from, resolving the column indexes
+     *
+     * @param cursor The cursor to read from. Null is allowed
+     */
+    public void setCursor(@Nullable Cursor cursor) {
+        mCursor = cursor;
+
+        for (int i = 0; i < mColumns.length; i++) {
+            mIndexes[i] = cursor != null ? cursor.getColumnIndex(mColumns[i]) : -1;
+        }
+    }
+
+    /**
+     * Returns the index of the column in the current cursor, -1 if the cursor does not have it
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    public int getColumnIndex(int column) {
+        return mIndexes[column];
+    }
+
+    /**
+     * Returns if the column is missing from the cursor or null for the current row
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    public boolean isNull(int column) {
+        int index = mIndexes[column];
+        return index < 0 || requireCursor().isNull(index);
+    }
+
+    /**
+     * Returns the value of the column for the current row as a long, 0 if the column is missing
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    public long getLong(int column) {
+        int index = mIndexes[column];
+        return index >= 0 ? requireCursor().getLong(index) : 0;
+    }
+
+    /**
+     * Returns the value of the column for the current row as an int, 0 if the column is missing
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    public int getInt(int column) {
+        int index = mIndexes[column];
+        return index >= 0 ? requireCursor().getInt(index) : 0;
+    }
+
+    /**
+     * Returns the value of the column for the current row as a double, 0 if the column is missing
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    public double getDouble(int column) {
+        int index = mIndexes[column];
+        return index >= 0 ? requireCursor().getDouble(index) : 0;
+    }
+
+    /**
+     * Returns the value of the column for the current row as a String, null if the column is missing. Allocates a
+     * new String, see {@link #getChars(int, CharArrayBuffer)} for an allocation free alternative
+     *
+     * @param column Position of the column in the projection
+     * @return
+     */
+    @Nullable
+    public String getString(int column) {
+        int index = mIndexes[column];
+        return index >= 0 ? requireCursor().getString(index) : null;
+    }
+
+    /**
+     * Copies the value of the column for the current row into the given buffer, which is only grown when the value
+     * does not fit. Whatever shows the value may keep a reference to the buffer's array, so the buffer must belong to
+     * the caller, such as the view holder the value is bound to, and not be shared between rows
+     *
+     * @param column Position of the column in the projection
+     * @param into   The buffer to copy the value into, left empty if the column is missing or null
+     */
+    public void getChars(int column, @NonNull CharArrayBuffer into) {
+        int index = mIndexes[column];
+
+        if (index >= 0) {
+            requireCursor().copyStringToBuffer(index, into);
+        } else {
+            into.sizeCopied = 0;
+        }
+    }
+
+    @NonNull
+    private Cursor requireCursor() {
+        if (mCursor == null) throw new IllegalStateException("Projection has no cursor");
+        return mCursor;
+    }
+}
@@ -2,15 +2,22 @@ package com.kennyc.adapters_java;
 
 import android.content.Context;
 import android.database.Cursor;
+import android.provider.BaseColumns;
 import android.support.annotation.CallSuper;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
 import android.support.v7.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * Created by kcampagna on 3/16/16.
  */
@@ -23,9 +30,55 @@ public abstract class CursorRecyclerAdapter<VH extends RecyclerView.ViewHolder>
     @Nullable
     private Cursor mCursor;
 
+    // Index of the _id column in the current cursor, -1 if the cursor has none
+    private int mIdColumn = -1;
+
+    @Nullable
+    private String mDiffIdColumn;
+
+    @Nullable
+    private String mDiffVersionColumn;
+
+    @Nullable
+    private Executor mDiffExecutor;
+
+    // Ids and versions of the rows in mCursor, only available for cursors swapped in while diffing is enabled
+    @Nullable
+    private CursorSnapshot mSnapshot;
+
+    // Cursor being read for an incremental swap that has not been applied yet
+    @Nullable
+    private Cursor mPendingCursor;
+
+    private final List<CursorProjection> mProjections = new ArrayList<>();
+
+    @Nullable
+    private PrefetchScheduler<Long> mPrefetchScheduler;
+
+    @Nullable
+    private Executor mPrefetchExecutor;
+
+    // Incremented for every swap, used to drop diffs that were superseded by a newer cursor
+    private volatile int mSwapGeneration = 0;
+
     public CursorRecyclerAdapter(@NonNull Context context, @Nullable Cursor cursor) {
+        this(context, cursor, false);
+    }
+
+    /**
+     * Creates a {@link CursorRecyclerAdapter}
+     *
+     * @param context   App context
+     * @param cursor    The cursor to populate the adapter with. Null is allowed
+     * @param stableIds If the adapter should report stable ids, read from the {@link BaseColumns#_ID} column
+     * @throws IllegalArgumentException If stable ids are requested and the cursor has no {@link BaseColumns#_ID} column
+     */
+    public CursorRecyclerAdapter(@NonNull Context context, @Nullable Cursor cursor, boolean stableIds) {
         mInflater = LayoutInflater.from(context);
+        setHasStableIds(stableIds);
+        checkIdColumn(cursor);
         mCursor = cursor;
+        mIdColumn = findIdColumn(cursor);
     }
 
     @Override
@@ -33,18 +86,177 @@ public abstract class CursorRecyclerAdapter<VH extends RecyclerView.ViewHolder>
         return mCursor != null ? mCursor.getCount() : 0;
     }
 
+    @Override
+    public long getItemId(int position) {
+        if (hasStableIds() && mIdColumn >= 0 && moveToPosition(position)) {
+            return mCursor.getLong(mIdColumn);
+        }
+
+        return RecyclerView.NO_ID;
+    }
+
+    /**
+     * Enables incremental swaps. When enabled, {@link #swapCursor(Cursor)} reads the given columns of the new cursor on
+     * a background thread and compares them with the current cursor, dispatching range notifications instead of
+     * {@link #notifyDataSetChanged()}. Rows are matched by id and rebound only when their version changed. Without a
+     * version column, every matched row is reported as changed.
+     * <p>
+     * Swaps are compared against the columns read from the previous swap, so the first swap after enabling this
+     * notifies the entire data set.
+     *
+     * @param idColumn      Name of the column uniquely identifying a row, null to disable incremental swaps
+     * @param versionColumn Name of a column that changes whenever the row content changes, such as a modification
+     *                      time or hash. Null is allowed
+     */
+    public void setDiffColumns(@Nullable String idColumn, @Nullable String versionColumn) {
+        mDiffIdColumn = idColumn;
+        mDiffVersionColumn = versionColumn;
+        mSnapshot = null;
+    }
+
+    /**
+     * Sets the {@link Executor} that incremental swaps read cursors on. Null will use the shared background executor
+     *
+     * @param executor The executor to read cursors on
+     */
+    public void setDiffExecutor(@Nullable Executor executor) {
+        mDiffExecutor = executor;
+    }
+
     /**
-     * Replaces the cursor of the adapter. Null is allowed
+     * Sets a {@link Prefetcher} called with the {@link BaseColumns#_ID} of the rows ahead of the bound positions in
+     * the direction the list is scrolling. Rows are prefetched nearest first on a background thread, a row is not
+     * prefetched again while it stays near the bound positions and rows that are no longer ahead are dropped if their
+     * prefetch has not started. Cursors without an {@link BaseColumns#_ID} column are not prefetched
+     *
+     * @param prefetcher    The prefetcher to call, null to stop prefetching
+     * @param distance      Number of positions ahead of the bound position to prefetch
+     * @param maxConcurrent Maximum number of rows prefetched at the same time
+     */
+    @MainThread
+    public void setPrefetcher(@Nullable Prefetcher<Long> prefetcher, int distance, int maxConcurrent) {
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
+        mPrefetchScheduler = null;
+        if (prefetcher == null) return;
+
+        mPrefetchScheduler = new PrefetchScheduler<>(prefetcher, new PrefetchScheduler.ItemSource<Long>() {
+            @Override
+            public int getItemCount() {
+                return CursorRecyclerAdapter.this.getItemCount();
+            }
+
+            @Nullable
+            @Override
+            public Long getPrefetchItem(int position) {
+                // The cursor can not be read off the main thread, only the id is handed to the prefetcher
+                if (mIdColumn < 0 || !moveToPosition(position)) return null;
+                return mCursor.getLong(mIdColumn);
+            }
+        }, distance, maxConcurrent, true);
+
+        mPrefetchScheduler.setExecutor(mPrefetchExecutor);
+    }
+
+    /**
+     * Sets the {@link Executor} rows are prefetched on. Null will use the shared background executor
+     *
+     * @param executor The executor to prefetch on
+     */
+    public void setPrefetchExecutor(@Nullable Executor executor) {
+        mPrefetchExecutor = executor;
+        if (mPrefetchScheduler != null) mPrefetchScheduler.setExecutor(executor);
+    }
+
+    @Override
+    public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+        super.onBindViewHolder(holder, position, payloads);
+        // Looked up after binding as it moves the cursor
+        if (mPrefetchScheduler != null) mPrefetchScheduler.onBound(position);
+    }
+
+    /**
+     * Replaces the cursor of the adapter. Null is allowed. The previous cursor is closed once the new one is applied.
+     * If incremental swaps are enabled with {@link #setDiffColumns(String, String)} the new cursor is applied
+     * asynchronously, a cursor that is replaced before being applied is closed without ever being shown
      *
      * @param newCursor
+     * @throws IllegalArgumentException If the adapter has stable ids and the cursor has no {@link BaseColumns#_ID}
+     *                                  column, or incremental swaps are enabled and the cursor lacks one of the columns
+     *                                  given to {@link #setDiffColumns(String, String)}
      */
-    public void swapCursor(Cursor newCursor) {
-        if (newCursor == mCursor) return;
+    @MainThread
+    public void swapCursor(final Cursor newCursor) {
+        if (newCursor == mCursor || (newCursor != null && newCursor == mPendingCursor)) return;
+        checkIdColumn(newCursor);
+        checkDiffColumns(newCursor);
+        mPendingCursor = null;
+        final int generation = ++mSwapGeneration;
+        final String idColumn = mDiffIdColumn;
+
+        if (idColumn == null || newCursor == null) {
+            applyCursor(newCursor, null, null);
+            return;
+        }
+
+        final String versionColumn = mDiffVersionColumn;
+        final CursorSnapshot oldSnapshot = mCursor != null ? mSnapshot : null;
+        Executor executor = mDiffExecutor != null ? mDiffExecutor : AdapterExecutors.background();
+        mPendingCursor = newCursor;
+
+        // The new cursor is not visible to the main thread yet so it is safe to read here, the current cursor is not
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mSwapGeneration) {
+                    newCursor.close();
+                    return;
+                }
+
+                final CursorSnapshot newSnapshot = CursorSnapshot.read(newCursor, idColumn, versionColumn);
+                final DiffUtil.DiffResult result = oldSnapshot != null ? oldSnapshot.diff(newSnapshot) : null;
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mSwapGeneration) {
+                            if (newCursor != mCursor) newCursor.close();
+                            return;
+                        }
+
+                        mPendingCursor = null;
+                        applyCursor(newCursor, newSnapshot, result);
+                    }
+                });
+            }
+        });
+    }
 
+    private void applyCursor(@Nullable Cursor newCursor, @Nullable CursorSnapshot snapshot, @Nullable DiffUtil.DiffResult result) {
         Cursor oldCursor = mCursor;
+        int oldCount = getItemCount();
         mCursor = newCursor;
+        mSnapshot = snapshot;
+        mIdColumn = findIdColumn(newCursor);
+        // Rows of the new cursor are requested again, they may have changed. Also lets the scheduler skip positions it
+        // already requested without moving the cursor, as positions only change here
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
+
+        for (int i = 0; i < mProjections.size(); i++) {
+            mProjections.get(i).setCursor(newCursor);
+        }
+
+        if (result != null) {
+            result.dispatchUpdatesTo(this);
+        } else if (mDiffIdColumn != null && newCursor == null) {
+            if (oldCount > 0) notifyItemRangeRemoved(0, oldCount);
+        } else if (mDiffIdColumn != null && oldCursor == null) {
+            notifyItemRangeInserted(0, getItemCount());
+        } else {
+            notifyDataSetChanged();
+        }
+
+        // Closed only after the notifications so nothing can bind from it in between
         if (oldCursor != null) oldCursor.close();
-        notifyDataSetChanged();
     }
 
     /**
@@ -78,11 +290,29 @@ public abstract class CursorRecyclerAdapter<VH extends RecyclerView.ViewHolder>
      * @return
      */
     protected View inflateView(@LayoutRes int layoutId, @Nullable ViewGroup parent) {
+        LayoutInflater inflater = ViewHolderWarmer.inflaterForCurrentThread(mInflater);
+
         if (parent == null) {
-            return mInflater.inflate(layoutId, null);
+            return inflater.inflate(layoutId, null);
         }
 
-        return mInflater.inflate(layoutId, parent, false);
+        return inflater.inflate(layoutId, parent, false);
+    }
+
+    /**
+     * Creates a {@link CursorProjection} of the given columns bound to the adapter's cursor. Column indexes are
+     * resolved again whenever the cursor is swapped. Typically created once and read after {@link #moveToPosition(int)}
+     * in {@link #onBindViewHolder(RecyclerView.ViewHolder, int)}
+     *
+     * @param columns Names of the columns of the projection
+     * @return
+     */
+    @NonNull
+    protected CursorProjection createProjection(@NonNull String... columns) {
+        CursorProjection projection = new CursorProjection(columns);
+        projection.setCursor(mCursor);
+        mProjections.add(projection);
+        return projection;
     }
 
     /**
@@ -95,8 +325,29 @@ public abstract class CursorRecyclerAdapter<VH extends RecyclerView.ViewHolder>
         return mCursor;
     }
 
+    private static int findIdColumn(@Nullable Cursor cursor) {
+        return cursor != null ? cursor.getColumnIndex(BaseColumns._ID) : -1;
+    }
+
+    private void checkIdColumn(@Nullable Cursor cursor) {
+        if (hasStableIds() && cursor != null && findIdColumn(cursor) < 0) {
+            throw new IllegalArgumentException("Stable ids require a cursor with a " + BaseColumns._ID + " column");
+        }
+    }
+
+    // Checked here as the cursor is only read on the diff executor, where a missing column would be lost
+    private void checkDiffColumns(@Nullable Cursor cursor) {
+        if (cursor == null || mDiffIdColumn == null) return;
+        cursor.getColumnIndexOrThrow(mDiffIdColumn);
+        if (mDiffVersionColumn != null) cursor.getColumnIndexOrThrow(mDiffVersionColumn);
+    }
+
     @CallSuper
     public void onDestroy() {
+        // Any pending swap closes its cursor once it notices it was superseded
+        mSwapGeneration++;
+        mPendingCursor = null;
         mInflater = null;
+        if (mPrefetchScheduler != null) mPrefetchScheduler.reset();
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.kennyc.adapters_java;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.DiffUtil;
+
+import java.util.Arrays;
+
+/**
+ * Row ids and versions read from a {@link Cursor}, used to compute the difference between two cursors without
+ * touching a cursor that is in use by the main thread
+ */
+final class CursorSnapshot {
+
+    @NonNull
+    final long[] ids;
+
+    @Nullable
+    final long[] versions;
+
+    private CursorSnapshot(@NonNull long[] ids, @Nullable long[] versions) {
+        this.ids = ids;
+        this.versions = versions;
+    }
+
+    /**
+     * Reads the id and version of every row of the cursor. The cursor position is left undefined
+     *
+     * @param cursor        The cursor to read
+     * @param idColumn      Name of the id column
+     * @param versionColumn Name of the version column, null if rows have no version
+     * @return
+     */
+    @NonNull
+    static CursorSnapshot read(@NonNull Cursor cursor, @NonNull String idColumn, @Nullable String versionColumn) {
+        int idIndex = cursor.getColumnIndexOrThrow(idColumn);
+        int versionIndex = versionColumn != null ? cursor.getColumnIndexOrThrow(versionColumn) : -1;
+        int count = cursor.getCount();
+        long[] ids = new long[count];
+        long[] versions = versionIndex >= 0 ? new long[count] : null;
+
+        for (int i = 0; i < count && cursor.moveToPosition(i); i++) {
+            ids[i] = cursor.getLong(idIndex);
+            if (versions != null) versions[i] = readVersion(cursor, versionIndex);
+        }
+
+        return new CursorSnapshot(ids, versions);
+    }
+
+    /**
+     * Computes the difference from this snapshot to the given one. Rows are matched by id and considered changed
+     * when their versions differ, or always when there is no version column
+     *
+     * @param newSnapshot The snapshot of the new cursor
+     * @return
+     */
+    @NonNull
+    DiffUtil.DiffResult diff(@NonNull final CursorSnapshot newSnapshot) {
+        final CursorSnapshot oldSnapshot = this;
+
+        return DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldSnapshot.ids.length;
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newSnapshot.ids.length;
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldSnapshot.ids[oldItemPosition] == newSnapshot.ids[newItemPosition];
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                return oldSnapshot.versions != null && newSnapshot.versions != null
+                        && oldSnapshot.versions[oldItemPosition] == newSnapshot.versions[newItemPosition];
+            }
+        });
+    }
+
+    private static long readVersion(@NonNull Cursor cursor, int column) {
+        switch (cursor.getType(column)) {
+            case Cursor.FIELD_TYPE_INTEGER:
+                return cursor.getLong(column);
+
+            case Cursor.FIELD_TYPE_FLOAT:
+                return Double.doubleToLongBits(cursor.getDouble(column));
+
+            case Cursor.FIELD_TYPE_STRING:
+                return cursor.getString(column).hashCode();
+
+            case Cursor.FIELD_TYPE_BLOB:
+                return Arrays.hashCode(cursor.getBlob(column));
+
+            default:
+                return 0;
+        }
+    }
+}
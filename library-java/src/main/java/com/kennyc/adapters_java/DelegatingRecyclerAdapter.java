@@ -0,0 +1,91 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.ViewGroup;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * {@link BaseRecyclerAdapter} that creates and binds its items with the {@link ItemViewDelegate} registered for their
+ * class, see {@link #registerViewType(Class, ItemViewDelegate)}. Every item must resolve to a registered delegate.
+ */
+public class DelegatingRecyclerAdapter<T, VH extends RecyclerView.ViewHolder> extends BaseRecyclerAdapter<T, VH> {
+
+    private final ViewTypeRegistry<T, VH> mViewTypes = new ViewTypeRegistry<>();
+
+    /**
+     * Simple constructor for creating a DelegatingRecyclerAdapter
+     *
+     * @param context    The context the adapter is running in
+     * @param collection A list of items to populate the adapter with, can be null, see
+     *                   {@link BaseRecyclerAdapter#BaseRecyclerAdapter(Context, List)}
+     */
+    public DelegatingRecyclerAdapter(Context context, @Nullable List<T> collection) {
+        super(context, collection);
+    }
+
+    /**
+     * Constructor for creating a DelegatingRecyclerAdapter that stores its items in the given type of list, see
+     * {@link BaseRecyclerAdapter#BaseRecyclerAdapter(Context, int, Collection)}
+     *
+     * @param context    The context the adapter is running in
+     * @param storage    The type of list to store the items in
+     * @param collection Items to populate the adapter with, can be null
+     */
+    public DelegatingRecyclerAdapter(Context context, @Storage int storage, @Nullable Collection<T> collection) {
+        super(context, storage, collection);
+    }
+
+    /**
+     * Constructor for creating a DelegatingRecyclerAdapter that keeps its items sorted, see
+     * {@link BaseRecyclerAdapter#BaseRecyclerAdapter(Context, Class, Comparator, Collection)}
+     *
+     * @param context    The context the adapter is running in
+     * @param itemClass  The class of the items
+     * @param comparator The order of the items
+     * @param collection Items to populate the adapter with, can be null
+     */
+    public DelegatingRecyclerAdapter(Context context, @NonNull Class<T> itemClass, @NonNull Comparator<? super T> comparator, @Nullable Collection<T> collection) {
+        super(context, itemClass, comparator, collection);
+    }
+
+    /**
+     * Registers the {@link ItemViewDelegate} that creates and binds the items of the given class. Items of a class
+     * without a delegate use the delegate of their nearest superclass or interface. Registering a class again
+     * replaces its delegate and keeps its view type
+     *
+     * @param itemClass The class of the items
+     * @param delegate  The delegate that creates and binds the items
+     * @return The view type of the items, view types are numbered from 0 in registration order
+     */
+    @MainThread
+    public <I extends T> int registerViewType(@NonNull Class<I> itemClass, @NonNull ItemViewDelegate<I, ? extends VH> delegate) {
+        return mViewTypes.register(itemClass, delegate);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mViewTypes.getViewType(getItem(position));
+    }
+
+    @Override
+    public VH onCreateViewHolder(ViewGroup parent, int viewType) {
+        return mViewTypes.create(getLayoutInflater(), parent, viewType);
+    }
+
+    @Override
+    public void onBindViewHolder(VH holder, int position) {
+        mViewTypes.bind(holder, getItem(position), position);
+    }
+
+    @Override
+    protected boolean onBindPayloads(VH holder, int position, @NonNull List<Object> payloads) {
+        return mViewTypes.bindPayloads(holder, getItem(position), position, payloads);
+    }
+}
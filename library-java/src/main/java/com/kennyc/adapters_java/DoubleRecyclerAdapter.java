@@ -0,0 +1,200 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * {@link RecyclerView.Adapter} for rendering double values rounded to a fixed number of fraction digits. Values are stored in a growable {@code double[]}
+ * instead of a list of {@link Double} objects, see {@link NumberRecyclerAdapter}
+ */
+public class DoubleRecyclerAdapter extends NumberRecyclerAdapter {
+
+    private static final double[] EMPTY = new double[0];
+
+    private double[] mItems = EMPTY;
+
+    private int mFractionDigits;
+
+    /**
+     * Constructor for creating a {@link DoubleRecyclerAdapter}
+     *
+     * @param context        App context
+     * @param layoutResource The layout to use for the adapter, must be a {@link android.widget.TextView}
+     * @param fractionDigits Number of digits displayed after the decimal point, between 0 and 9
+     * @param clickListener  Click Listener for receiving click events. Null safe
+     */
+    public DoubleRecyclerAdapter(@NonNull Context context, @LayoutRes int layoutResource, int fractionDigits, @Nullable View.OnClickListener clickListener) {
+        this(context, layoutResource, 0, fractionDigits, null, clickListener);
+    }
+
+    /**
+     * Constructor for creating a {@link DoubleRecyclerAdapter}
+     *
+     * @param context            App context
+     * @param layoutResource     The layout to use for the adapter
+     * @param textViewResourceId The id of the {@link android.widget.TextView} in the layout
+     * @param fractionDigits     Number of digits displayed after the decimal point, between 0 and 9
+     * @param items              Values to populate the adapter with, they are copied. Null safe
+     * @param clickListener      Click Listener for receiving click events. Null safe
+     */
+    public DoubleRecyclerAdapter(@NonNull Context context, @LayoutRes int layoutResource, @IdRes int textViewResourceId, int fractionDigits, @Nullable double[] items, @Nullable View.OnClickListener clickListener) {
+        super(context, layoutResource, textViewResourceId, clickListener);
+        mFractionDigits = checkFractionDigits(fractionDigits);
+        if (items != null && items.length > 0) {
+            mItems = Arrays.copyOf(items, items.length);
+            mSize = items.length;
+        }
+    }
+
+    @Override
+    protected int formatItem(int position, @NonNull char[] buffer) {
+        return formatDouble(mItems[position], mFractionDigits, buffer, 0);
+    }
+
+    @NonNull
+    @Override
+    Object getArray() {
+        return mItems;
+    }
+
+    @Override
+    int getCapacity() {
+        return mItems.length;
+    }
+
+    @Override
+    void setCapacity(int capacity) {
+        mItems = Arrays.copyOf(mItems, capacity);
+    }
+
+    /**
+     * Adds a value to the end of the list, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param value Value to add to the adapter
+     */
+    public void addItem(double value) {
+        addItem(value, mSize);
+    }
+
+    /**
+     * Adds a value to the list at the given position, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param value    Value to add to the adapter
+     * @param position Position to add the value
+     */
+    public void addItem(double value, int position) {
+        openGap(position, 1);
+        mItems[position] = value;
+        mUpdates.onInserted(position, 1);
+    }
+
+    /**
+     * Adds values to the end of the list, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param values Values to add to the adapter
+     */
+    public void addItems(@Nullable double[] values) {
+        addItems(values, mSize);
+    }
+
+    /**
+     * Adds values to the list at the given position, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param values   Values to add to the adapter
+     * @param position The position to add the values into the adapter
+     */
+    public void addItems(@Nullable double[] values, int position) {
+        if (values != null && values.length > 0) insertValues(values, values.length, position);
+    }
+
+    /**
+     * Removes the value at the given position, {@link #notifyItemRemoved(int)} will be called
+     *
+     * @param position The position to remove from the adapter
+     * @return The value removed
+     */
+    public double removeItem(int position) {
+        double value = getItem(position);
+        removeItems(position, position + 1);
+        return value;
+    }
+
+    /**
+     * Removes the first occurrence of the value, {@link #notifyItemRangeRemoved(int, int)} will be called
+     *
+     * @param value The value to remove from the adapter
+     * @return If the value was removed
+     */
+    public boolean removeValue(double value) {
+        int position = indexOf(value);
+        if (position == RecyclerView.NO_POSITION) return false;
+        removeItems(position, position + 1);
+        return true;
+    }
+
+    /**
+     * Replaces the value at the given position, {@link #notifyItemChanged(int)} will be called if it differs
+     *
+     * @param position The position of the value to replace
+     * @param value    The new value
+     * @return The value that was replaced
+     */
+    public double updateItem(int position, double value) {
+        double oldValue = getItem(position);
+        mItems[position] = value;
+        if (Double.compare(oldValue, value) != 0) mUpdates.onChanged(position, 1, null);
+        return oldValue;
+    }
+
+    /**
+     * Returns the value at the given position
+     *
+     * @param position The position to return
+     * @return The value at the given position
+     */
+    public double getItem(int position) {
+        checkPosition(position);
+        return mItems[position];
+    }
+
+    /**
+     * Returns the position of the first occurrence of the value. If not found, {@link RecyclerView#NO_POSITION} will be returned
+     *
+     * @param value The value to search for
+     * @return The position of the value
+     */
+    public int indexOf(double value) {
+        for (int i = 0; i < mSize; i++) {
+            if (Double.compare(mItems[i], value) == 0) return i;
+        }
+
+        return RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Returns a copy of the values in the adapter, used for saving the values for configuration changes
+     *
+     * @return A copy of the values in the adapter
+     */
+    public double[] retainItems() {
+        return Arrays.copyOf(mItems, mSize);
+    }
+
+    /**
+     * Sets the number of digits displayed after the decimal point, all values will be rebound
+     *
+     * @param fractionDigits The number of digits, between 0 and 9
+     */
+    public void setFractionDigits(int fractionDigits) {
+        if (mFractionDigits == checkFractionDigits(fractionDigits)) return;
+        mFractionDigits = fractionDigits;
+        mUpdates.onChanged(0, mSize, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+/**
+ * Process wide cache of the {@link Drawable.ConstantState}s of drawable resources, so every adapter creates its
+ * drawables from the state that was loaded once instead of loading the resource again. Holds the most recently used
+ * resources and is cleared when the configuration changes, as resources may then resolve to different files.
+ */
+final class DrawableCache {
+
+    private static final int MAX_SIZE = 64;
+
+    private static final LruCache<Integer, Drawable.ConstantState> sStates = new LruCache<>(MAX_SIZE);
+
+    // Configuration the cached states were loaded with
+    @Nullable
+    private static Configuration sConfiguration;
+
+    private DrawableCache() {
+        // No instances
+    }
+
+    /**
+     * Returns a new drawable for the given resource, sharing its state with the other drawables of the resource
+     *
+     * @param context The context to load the drawable with, its theme is applied on Lollipop and above
+     * @param resId   The drawable resource
+     * @return
+     */
+    @MainThread
+    @Nullable
+    @SuppressWarnings("deprecation")
+    static Drawable getDrawable(@NonNull Context context, @DrawableRes int resId) {
+        Resources resources = context.getResources();
+        Configuration configuration = resources.getConfiguration();
+
+        if (sConfiguration == null || !sConfiguration.equals(configuration)) {
+            sStates.evictAll();
+            sConfiguration = new Configuration(configuration);
+        }
+
+        Drawable.ConstantState state = sStates.get(resId);
+
+        if (state != null) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? state.newDrawable(resources, context.getTheme()) : state.newDrawable(resources);
+        }
+
+        Drawable drawable = Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP ? context.getDrawable(resId) : resources.getDrawable(resId);
+        // Drawables without a constant state can not be shared and are loaded every time
+        state = drawable != null ? drawable.getConstantState() : null;
+        if (state != null) sStates.put(resId, state);
+        return drawable;
+    }
+}
@@ -0,0 +1,62 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Callback used by {@link BaseRecyclerAdapter#submitList(java.util.List)} to compute the difference between
+ * two lists. Methods are called from a background thread
+ */
+public abstract class ItemDiffCallback<T> {
+
+    /**
+     * Returns if the two items represent the same object, typically by comparing ids
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return If the two items represent the same object
+     */
+    public abstract boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * Returns if the two items have the same visual representation. Only called when
+     * {@link #areItemsTheSame(Object, Object)} returns true
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return If the contents of the items are the same
+     */
+    public abstract boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    /**
+     * Returns an optional payload describing the change between the two items. Only called when
+     * {@link #areItemsTheSame(Object, Object)} returns true and {@link #areContentsTheSame(Object, Object)} returns false
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return A payload for the change, null for a full rebind
+     */
+    @Nullable
+    public Object getChangePayload(@NonNull T oldItem, @NonNull T newItem) {
+        return null;
+    }
+
+    /**
+     * Creates an {@link ItemDiffCallback} that uses {@link Object#equals(Object)} for identity and content
+     *
+     * @return
+     */
+    public static <T> ItemDiffCallback<T> equality() {
+        return new ItemDiffCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return oldItem.equals(newItem);
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return true;
+            }
+        };
+    }
+}
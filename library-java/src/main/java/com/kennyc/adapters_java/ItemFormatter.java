@@ -0,0 +1,19 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Formats items into the text displayed by an {@link ArrayRecyclerAdapter}. Formatted text is cached by the adapter,
+ * see {@link ArrayRecyclerAdapter#setItemFormatter(ItemFormatter, int)}
+ */
+public interface ItemFormatter<T> {
+
+    /**
+     * Formats the item. May be called from a background thread when text precomputation is enabled
+     *
+     * @param item The item to format
+     * @return The text to display for the item
+     */
+    @NonNull
+    CharSequence format(@NonNull T item);
+}
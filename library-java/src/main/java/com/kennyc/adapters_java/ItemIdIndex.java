@@ -0,0 +1,96 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Index of stable ids to positions backed by a {@link LongIntMap}. Like {@link PositionIndex}, mutations only lower
+ * the position below which entries are known to be valid and the rest of the list is re-indexed on demand.
+ */
+final class ItemIdIndex<T> {
+
+    private static final int SEGMENT_SIZE = 512;
+
+    @NonNull
+    private final ItemIdProvider<T> mIdProvider;
+
+    private final LongIntMap mPositions = new LongIntMap(64);
+
+    private int mIndexedUntil = 0;
+
+    ItemIdIndex(@NonNull ItemIdProvider<T> idProvider) {
+        mIdProvider = idProvider;
+    }
+
+    @NonNull
+    ItemIdProvider<T> getIdProvider() {
+        return mIdProvider;
+    }
+
+    /**
+     * Returns the position of the item with the given id, {@link ItemStore#NO_POSITION} if not found
+     *
+     * @param items The list the index is tracking
+     * @param id    The id to search for
+     * @return
+     */
+    int positionOf(@NonNull List<T> items, long id) {
+        int size = items.size();
+        if (mIndexedUntil > size) mIndexedUntil = size;
+
+        if (mPositions.size() > Math.max(SEGMENT_SIZE, size * 2)) {
+            // Mostly entries of removed items, start over instead of letting the table grow
+            clear();
+        }
+
+        int position = mPositions.get(id, ItemStore.NO_POSITION);
+
+        // Entries of removed items are never deleted, verify the entry still points at the right item
+        if (position != ItemStore.NO_POSITION && position < mIndexedUntil
+                && mIdProvider.getItemId(items.get(position)) == id) {
+            return position;
+        }
+
+        while (mIndexedUntil < size) {
+            int start = mIndexedUntil;
+            int end = Math.min(size, start + SEGMENT_SIZE);
+            int found = ItemStore.NO_POSITION;
+
+            for (int i = start; i < end; i++) {
+                long itemId = mIdProvider.getItemId(items.get(i));
+                mPositions.put(itemId, i);
+                if (found == ItemStore.NO_POSITION && itemId == id) found = i;
+            }
+
+            mIndexedUntil = end;
+            if (found != ItemStore.NO_POSITION) return found;
+        }
+
+        return ItemStore.NO_POSITION;
+    }
+
+    /**
+     * Called after the item at the given position was replaced
+     *
+     * @param item     The new item
+     * @param position The position of the item
+     */
+    void onReplaced(T item, int position) {
+        if (position < mIndexedUntil) mPositions.put(mIdProvider.getItemId(item), position);
+    }
+
+    /**
+     * Invalidates every entry at or after the given position
+     *
+     * @param position The first position that changed
+     */
+    void invalidateFrom(int position) {
+        if (position < mIndexedUntil) mIndexedUntil = position;
+    }
+
+    void clear() {
+        mPositions.clear();
+        mIndexedUntil = 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.kennyc.adapters_java;
+
+/**
+ * Provides stable ids for the items of an adapter, see {@link android.support.v7.widget.RecyclerView.Adapter#setHasStableIds(boolean)}
+ */
+public interface ItemIdProvider<T> {
+
+    /**
+     * Returns the stable id of the given item. Ids must be unique within the adapter and must not change for an item
+     *
+     * @param item The item to return the id for
+     * @return The id of the item
+     */
+    long getItemId(T item);
+}
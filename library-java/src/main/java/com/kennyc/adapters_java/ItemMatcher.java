@@ -0,0 +1,22 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+/**
+ * Decides which items of an {@link ArrayRecyclerAdapter} match a filter query, see
+ * {@link ArrayRecyclerAdapter#setItemMatcher(ItemMatcher)}
+ */
+public interface ItemMatcher<T> {
+
+    /**
+     * Returns if the item matches the query. An item that matches a query must also match every prefix of that query,
+     * as longer queries are only matched against the items that matched the previous one
+     *
+     * @param item  The item to match
+     * @param query The query in lower case, never empty
+     * @return
+     */
+    @WorkerThread
+    boolean matches(@NonNull T item, @NonNull String query);
+}
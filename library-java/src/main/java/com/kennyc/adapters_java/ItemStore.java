@@ -0,0 +1,261 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.List;
+
+/**
+ * The items of a {@link BaseRecyclerAdapter} with their indexes. Every mutation keeps the indexes in sync, is
+ * reported to the {@link ListUpdateCallback} and applies the maximum item count. Has no dependency on the Android
+ * runtime so the data paths of the adapters can be benchmarked on the JVM.
+ */
+final class ItemStore<T> {
+
+    /**
+     * Position returned when an item is not found, same as {@link android.support.v7.widget.RecyclerView#NO_POSITION}
+     */
+    static final int NO_POSITION = -1;
+
+    @NonNull
+    private final ListUpdateCallback mCallback;
+
+    @Nullable
+    private List<T> mItems;
+
+    @Nullable
+    private PositionIndex<T> mPositionIndex;
+
+    @Nullable
+    private ItemIdIndex<T> mItemIdIndex;
+
+    // Maximum number of items kept when items are added, 0 for no limit
+    private int mMaxItemCount = 0;
+
+    /**
+     * Creates an {@link ItemStore}
+     *
+     * @param items    The items to store, used as they are. Null is allowed
+     * @param callback The callback notified of every mutation
+     */
+    ItemStore(@Nullable List<T> items, @NonNull ListUpdateCallback callback) {
+        mItems = items;
+        mCallback = callback;
+    }
+
+    /**
+     * Returns the backing list, not a copy
+     *
+     * @return
+     */
+    @Nullable
+    List<T> getItems() {
+        return mItems;
+    }
+
+    /**
+     * Replaces the backing list without notifying the callback
+     *
+     * @param items The new list, used as it is
+     */
+    void setItems(@Nullable List<T> items) {
+        mItems = items;
+        clearIndexes();
+    }
+
+    int size() {
+        return mItems != null ? mItems.size() : 0;
+    }
+
+    T get(int position) {
+        return mItems.get(position);
+    }
+
+    void add(T object) {
+        // An exception is thrown instead of creating a List object since the type of list in unknown
+        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        mItems.add(object);
+        if (mPositionIndex != null) mPositionIndex.onInserted(mItems, mItems.size() - 1, 1);
+        mCallback.onInserted(mItems.size() - 1, 1);
+        evictOverflow(true);
+    }
+
+    void add(int position, T object) {
+        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        mItems.add(position, object);
+        if (mPositionIndex != null) mPositionIndex.onInserted(mItems, position, 1);
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(position);
+        mCallback.onInserted(position, 1);
+        evictOverflow(position != 0);
+    }
+
+    /**
+     * Appends the items. If no list has been set yet, the given list becomes the backing list
+     *
+     * @param items The items to append
+     */
+    void addAll(@NonNull List<T> items) {
+        if (items.isEmpty()) return;
+        int startingSize = 0;
+
+        if (mItems == null) {
+            mItems = items;
+        } else {
+            startingSize = mItems.size();
+            mItems.addAll(items);
+        }
+
+        int count = mItems.size() - startingSize;
+        if (mPositionIndex != null) mPositionIndex.onInserted(mItems, startingSize, count);
+        mCallback.onInserted(startingSize, count);
+        evictOverflow(true);
+    }
+
+    void addAll(int position, @NonNull List<T> items) {
+        if (items.isEmpty()) return;
+        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        mItems.addAll(position, items);
+        if (mPositionIndex != null) mPositionIndex.onInserted(mItems, position, items.size());
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(position);
+        mCallback.onInserted(position, items.size());
+        evictOverflow(position != 0);
+    }
+
+    T remove(int position) {
+        if (mPositionIndex != null) mPositionIndex.onRemoving(mItems, position, position + 1);
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(position);
+        T removedItem = mItems.remove(position);
+        mCallback.onRemoved(position, 1);
+        return removedItem;
+    }
+
+    void removeRange(int start, int end) {
+        if (start >= end) return;
+        if (mPositionIndex != null) mPositionIndex.onRemoving(mItems, start, end);
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(start);
+        mItems.subList(start, end).clear();
+        mCallback.onRemoved(start, end - start);
+    }
+
+    T set(int position, T object, @Nullable Object payload) {
+        if (mItems == null) throw new NullPointerException("Adapter list has not been initialized");
+        T oldItem = mItems.set(position, object);
+        if (mPositionIndex != null) mPositionIndex.onReplaced(oldItem, object, position);
+        if (mItemIdIndex != null) mItemIdIndex.onReplaced(object, position);
+        mCallback.onChanged(position, 1, payload);
+        return oldItem;
+    }
+
+    void clear() {
+        if (mItems == null) return;
+        int size = mItems.size();
+        mItems.clear();
+        clearIndexes();
+        mCallback.onRemoved(0, size);
+    }
+
+    /**
+     * Returns the position of the item, using the position index when enabled
+     *
+     * @param object The item to search for
+     * @return The position of the item, {@link #NO_POSITION} if not found
+     */
+    int indexOf(T object) {
+        if (mItems == null || mItems.isEmpty()) return NO_POSITION;
+        return mPositionIndex != null ? mPositionIndex.indexOf(mItems, object) : mItems.indexOf(object);
+    }
+
+    /**
+     * Returns the position of the item with the given id
+     *
+     * @param id The id to search for
+     * @return The position of the item, {@link #NO_POSITION} if not found
+     * @throws IllegalStateException If no {@link ItemIdIndex} has been set
+     */
+    int positionOfId(long id) {
+        if (mItemIdIndex == null) throw new IllegalStateException("No ItemIdProvider has been set");
+        if (mItems == null || mItems.isEmpty()) return NO_POSITION;
+        return mItemIdIndex.positionOf(mItems, id);
+    }
+
+    void setPositionIndex(@Nullable PositionIndex<T> positionIndex) {
+        mPositionIndex = positionIndex;
+    }
+
+    void setItemIdIndex(@Nullable ItemIdIndex<T> itemIdIndex) {
+        mItemIdIndex = itemIdIndex;
+    }
+
+    @Nullable
+    ItemIdIndex<T> getItemIdIndex() {
+        return mItemIdIndex;
+    }
+
+    /**
+     * Sets the maximum number of items kept, evicting the overflow from the end of the list
+     *
+     * @param maxItemCount The maximum number of items, 0 for no limit
+     */
+    void setMaxItemCount(int maxItemCount) {
+        mMaxItemCount = maxItemCount;
+        evictOverflow(false);
+    }
+
+    /**
+     * Returns the maximum number of items kept
+     *
+     * @return The maximum number of items, 0 for no limit
+     */
+    int getMaxItemCount() {
+        return mMaxItemCount;
+    }
+
+    /**
+     * Updates the indexes after the backing list inserted items on its own and notifies the callback
+     *
+     * @param position The position the items were inserted at
+     * @param count    The number of items inserted
+     */
+    void onInserted(int position, int count) {
+        if (mPositionIndex != null) mPositionIndex.onInserted(mItems, position, count);
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(position);
+        mCallback.onInserted(position, count);
+    }
+
+    /**
+     * Updates the indexes after the backing list removed items on its own and notifies the callback
+     *
+     * @param position The position of the first item removed
+     * @param count    The number of items removed
+     */
+    void onRemoved(int position, int count) {
+        // The removed items are gone so their entries can not be dropped one by one
+        if (mPositionIndex != null) mPositionIndex.clear();
+        if (mItemIdIndex != null) mItemIdIndex.invalidateFrom(position);
+        mCallback.onRemoved(position, count);
+    }
+
+    void clearIndexes() {
+        if (mPositionIndex != null) mPositionIndex.clear();
+        if (mItemIdIndex != null) mItemIdIndex.clear();
+    }
+
+    /**
+     * Removes the items past the maximum item count from one end of the list. Items added at the head evict from the
+     * tail, all other additions evict from the head, even if that evicts added items
+     *
+     * @param fromHead If the items are removed from the head of the list, otherwise from the tail
+     */
+    private void evictOverflow(boolean fromHead) {
+        int size = size();
+        int overflow = size - mMaxItemCount;
+        if (mMaxItemCount <= 0 || overflow <= 0) return;
+
+        if (fromHead) {
+            removeRange(0, overflow);
+        } else {
+            removeRange(size - overflow, size);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.List;
+
+/**
+ * Creates and binds the {@link RecyclerView.ViewHolder}s of one type of item, see
+ * {@link DelegatingRecyclerAdapter#registerViewType(Class, ItemViewDelegate)}
+ */
+public abstract class ItemViewDelegate<T, VH extends RecyclerView.ViewHolder> {
+
+    /**
+     * Creates a {@link RecyclerView.ViewHolder} for the items of this delegate
+     *
+     * @param inflater The inflater to inflate the view with, safe to use on the calling thread
+     * @param parent   The parent the view will be attached to
+     * @return
+     */
+    @NonNull
+    public abstract VH onCreateViewHolder(@NonNull LayoutInflater inflater, @NonNull ViewGroup parent);
+
+    /**
+     * Binds the item to a {@link RecyclerView.ViewHolder} created by this delegate
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to bind
+     * @param item     The item to bind
+     * @param position The position of the item
+     */
+    public abstract void onBindViewHolder(@NonNull VH holder, @NonNull T item, int position);
+
+    /**
+     * Partially rebinds a {@link RecyclerView.ViewHolder} already showing the item, see
+     * {@link BaseRecyclerAdapter#onBindPayloads(RecyclerView.ViewHolder, int, List)}
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to update
+     * @param item     The item to bind
+     * @param position The position of the item
+     * @param payloads The payloads of every change since the holder was last bound, never empty
+     * @return If the payloads were handled, false for a full rebind
+     */
+    public boolean onBindPayloads(@NonNull VH holder, @NonNull T item, int position, @NonNull List<Object> payloads) {
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.kennyc.adapters_java;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map of primitive long keys to int values. Keys and values are never boxed, so lookups and
+ * updates do not allocate outside of growing the tables. Entries can not be removed individually, only cleared.
+ */
+final class LongIntMap {
+
+    private static final int EMPTY = -1;
+
+    private long[] mKeys;
+
+    // Values double as the slot state, a slot is free when its value is EMPTY
+    private int[] mValues;
+
+    private int mSize = 0;
+
+    LongIntMap(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(8, initialCapacity * 2 - 1)) << 1;
+        mKeys = new long[capacity];
+        mValues = new int[capacity];
+        Arrays.fill(mValues, EMPTY);
+    }
+
+    /**
+     * Returns the value for the given key
+     *
+     * @param key          The key to look up
+     * @param defaultValue The value returned if the key is not in the map
+     * @return
+     */
+    int get(long key, int defaultValue) {
+        int mask = mKeys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (mValues[slot] != EMPTY) {
+            if (mKeys[slot] == key) return mValues[slot];
+            slot = (slot + 1) & mask;
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Maps the key to the given value, replacing any previous value
+     *
+     * @param key   The key
+     * @param value The value, must not be negative
+     */
+    void put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("Values must not be negative");
+        if ((mSize + 1) * 2 > mKeys.length) grow();
+
+        int mask = mKeys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (mValues[slot] != EMPTY) {
+            if (mKeys[slot] == key) {
+                mValues[slot] = value;
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        mSize++;
+    }
+
+    /**
+     * Removes all entries, keeping the allocated tables
+     */
+    void clear() {
+        if (mSize == 0) return;
+        Arrays.fill(mValues, EMPTY);
+        mSize = 0;
+    }
+
+    int size() {
+        return mSize;
+    }
+
+    private void grow() {
+        long[] oldKeys = mKeys;
+        int[] oldValues = mValues;
+        mKeys = new long[oldKeys.length * 2];
+        mValues = new int[oldValues.length * 2];
+        Arrays.fill(mValues, EMPTY);
+        mSize = 0;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int hash(long key) {
+        // Finalizer of MurmurHash3, spreads sequential ids across the table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
@@ -0,0 +1,184 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * {@link RecyclerView.Adapter} for rendering long values. Values are stored in a growable {@code long[]}
+ * instead of a list of {@link Long} objects, see {@link NumberRecyclerAdapter}
+ */
+public class LongRecyclerAdapter extends NumberRecyclerAdapter {
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] mItems = EMPTY;
+
+    /**
+     * Constructor for creating a {@link LongRecyclerAdapter}
+     *
+     * @param context        App context
+     * @param layoutResource The layout to use for the adapter, must be a {@link android.widget.TextView}
+     * @param clickListener  Click Listener for receiving click events. Null safe
+     */
+    public LongRecyclerAdapter(@NonNull Context context, @LayoutRes int layoutResource, @Nullable View.OnClickListener clickListener) {
+        this(context, layoutResource, 0, null, clickListener);
+    }
+
+    /**
+     * Constructor for creating a {@link LongRecyclerAdapter}
+     *
+     * @param context            App context
+     * @param layoutResource     The layout to use for the adapter
+     * @param textViewResourceId The id of the {@link android.widget.TextView} in the layout
+     * @param items              Values to populate the adapter with, they are copied. Null safe
+     * @param clickListener      Click Listener for receiving click events. Null safe
+     */
+    public LongRecyclerAdapter(@NonNull Context context, @LayoutRes int layoutResource, @IdRes int textViewResourceId, @Nullable long[] items, @Nullable View.OnClickListener clickListener) {
+        super(context, layoutResource, textViewResourceId, clickListener);
+        if (items != null && items.length > 0) {
+            mItems = Arrays.copyOf(items, items.length);
+            mSize = items.length;
+        }
+    }
+
+    @Override
+    protected int formatItem(int position, @NonNull char[] buffer) {
+        return formatLong(mItems[position], buffer, 0);
+    }
+
+    @NonNull
+    @Override
+    Object getArray() {
+        return mItems;
+    }
+
+    @Override
+    int getCapacity() {
+        return mItems.length;
+    }
+
+    @Override
+    void setCapacity(int capacity) {
+        mItems = Arrays.copyOf(mItems, capacity);
+    }
+
+    /**
+     * Adds a value to the end of the list, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param value Value to add to the adapter
+     */
+    public void addItem(long value) {
+        addItem(value, mSize);
+    }
+
+    /**
+     * Adds a value to the list at the given position, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param value    Value to add to the adapter
+     * @param position Position to add the value
+     */
+    public void addItem(long value, int position) {
+        openGap(position, 1);
+        mItems[position] = value;
+        mUpdates.onInserted(position, 1);
+    }
+
+    /**
+     * Adds values to the end of the list, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param values Values to add to the adapter
+     */
+    public void addItems(@Nullable long[] values) {
+        addItems(values, mSize);
+    }
+
+    /**
+     * Adds values to the list at the given position, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param values   Values to add to the adapter
+     * @param position The position to add the values into the adapter
+     */
+    public void addItems(@Nullable long[] values, int position) {
+        if (values != null && values.length > 0) insertValues(values, values.length, position);
+    }
+
+    /**
+     * Removes the value at the given position, {@link #notifyItemRemoved(int)} will be called
+     *
+     * @param position The position to remove from the adapter
+     * @return The value removed
+     */
+    public long removeItem(int position) {
+        long value = getItem(position);
+        removeItems(position, position + 1);
+        return value;
+    }
+
+    /**
+     * Removes the first occurrence of the value, {@link #notifyItemRangeRemoved(int, int)} will be called
+     *
+     * @param value The value to remove from the adapter
+     * @return If the value was removed
+     */
+    public boolean removeValue(long value) {
+        int position = indexOf(value);
+        if (position == RecyclerView.NO_POSITION) return false;
+        removeItems(position, position + 1);
+        return true;
+    }
+
+    /**
+     * Replaces the value at the given position, {@link #notifyItemChanged(int)} will be called if it differs
+     *
+     * @param position The position of the value to replace
+     * @param value    The new value
+     * @return The value that was replaced
+     */
+    public long updateItem(int position, long value) {
+        long oldValue = getItem(position);
+        mItems[position] = value;
+        if (oldValue != value) mUpdates.onChanged(position, 1, null);
+        return oldValue;
+    }
+
+    /**
+     * Returns the value at the given position
+     *
+     * @param position The position to return
+     * @return The value at the given position
+     */
+    public long getItem(int position) {
+        checkPosition(position);
+        return mItems[position];
+    }
+
+    /**
+     * Returns the position of the first occurrence of the value. If not found, {@link RecyclerView#NO_POSITION} will be returned
+     *
+     * @param value The value to search for
+     * @return The position of the value
+     */
+    public int indexOf(long value) {
+        for (int i = 0; i < mSize; i++) {
+            if (mItems[i] == value) return i;
+        }
+
+        return RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * Returns a copy of the values in the adapter, used for saving the values for configuration changes
+     *
+     * @return A copy of the values in the adapter
+     */
+    public long[] retainItems() {
+        return Arrays.copyOf(mItems, mSize);
+    }
+}
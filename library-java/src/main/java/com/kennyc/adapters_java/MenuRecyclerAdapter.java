@@ -1,15 +1,21 @@
 package com.kennyc.adapters_java;
 
+import android.content.ComponentCallbacks;
 import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
+import android.content.res.Configuration;
 import android.graphics.drawable.Drawable;
+import android.support.annotation.MainThread;
 import android.support.annotation.MenuRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v7.widget.RecyclerView;
+import android.util.LruCache;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.ActionProvider;
 import android.view.ContextMenu;
 import android.view.KeyEvent;
@@ -25,29 +31,276 @@ import android.widget.TextView;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * {@link BaseRecyclerAdapter} showing the items of a menu. Adapters created from a menu resource show submenus as
+ * expandable items, see {@link #expandItem(int)}. Their items are read only, adding, removing, replacing or submitting
+ * items throws an {@link UnsupportedOperationException}. The items of a submenu are only created once it is first
+ * expanded.
+ */
 public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyclerAdapter.MenuHolder> {
 
+    private static final int MAX_CACHED_MENUS = 32;
+
+    private static final String READ_ONLY = "Items of a MenuRecyclerAdapter created from a menu resource are read only";
+
+    // Items of parsed menus, copied for every adapter created from the same menu and configuration
+    private static final LruCache<MenuKey, RecyclerMenuItem[]> sMenuCache = new LruCache<>(MAX_CACHED_MENUS);
+
+    private static boolean sCallbacksRegistered = false;
+
     @Nullable
     private View.OnClickListener clickListener;
 
-    public MenuRecyclerAdapter(@NonNull Context context, @MenuRes int menuRes, @Nullable View.OnClickListener clickListener) {
-        super(context, null);
-        MenuInflater inflater = new MenuInflater(context);
-        Menu menu = new RecyclerMenu(context);
-        inflater.inflate(menuRes, menu);
-        ArrayList<MenuItem> items = new ArrayList<>(menu.size());
-
-        for (int i = 0; i < menu.size(); i++) {
-            items.add(menu.getItem(i));
-        }
+    // Rows of the menu when created from a menu resource, null when created from a list
+    @Nullable
+    private final MenuTreeList mTree;
 
-        addItems(items);
-        this.clickListener = clickListener;
+    public MenuRecyclerAdapter(@NonNull Context context, @MenuRes int menuRes, @Nullable View.OnClickListener clickListener) {
+        this(new MenuTreeList(createMenu(context, menuRes)), context, clickListener);
     }
 
     public MenuRecyclerAdapter(@NonNull Context context, @Nullable List<MenuItem> items, @Nullable View.OnClickListener clickListener) {
         super(context, items);
         this.clickListener = clickListener;
+        mTree = null;
+    }
+
+    private MenuRecyclerAdapter(@NonNull MenuTreeList tree, @NonNull Context context, @Nullable View.OnClickListener clickListener) {
+        super(context, tree);
+        this.clickListener = clickListener;
+        mTree = tree;
+    }
+
+    /**
+     * Returns if the submenu of the item at the given position is expanded
+     *
+     * @param position The position of the item
+     * @return
+     */
+    public boolean isExpanded(int position) {
+        return mTree != null && mTree.isExpanded(position);
+    }
+
+    /**
+     * Shows the items of the submenu of the item at the given position below it, with a single range insertion. Does
+     * nothing if the item has no submenu or it is already expanded
+     *
+     * @param position The position of the item
+     */
+    @MainThread
+    public void expandItem(int position) {
+        int count = requireTree().expand(position);
+        if (count > 0) dispatchItemsInserted(position + 1, count);
+    }
+
+    /**
+     * Hides the items of the submenu of the item at the given position, with a single range removal. Expanded nested
+     * submenus are collapsed as well
+     *
+     * @param position The position of the item
+     */
+    @MainThread
+    public void collapseItem(int position) {
+        int count = requireTree().collapse(position);
+        if (count > 0) dispatchItemsRemoved(position + 1, count);
+    }
+
+    /**
+     * Expands the submenu of the item at the given position if it is collapsed, collapses it otherwise
+     *
+     * @param position The position of the item
+     * @return If the submenu is now expanded
+     */
+    @MainThread
+    public boolean toggleItem(int position) {
+        if (isExpanded(position)) {
+            collapseItem(position);
+            return false;
+        }
+
+        expandItem(position);
+        return isExpanded(position);
+    }
+
+    /**
+     * Returns how deep in expanded submenus the item at the given position is, 0 for the items of the menu itself
+     *
+     * @param position The position of the item
+     * @return
+     */
+    public int getItemDepth(int position) {
+        return mTree != null ? mTree.getDepth(position) : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void addItem(MenuItem object) {
+        checkWritable();
+        super.addItem(object);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void addItem(MenuItem object, int position) {
+        checkWritable();
+        super.addItem(object, position);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void addItems(List<MenuItem> items) {
+        checkWritable();
+        super.addItems(items);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void addItems(List<MenuItem> items, int position) {
+        checkWritable();
+        super.addItems(items, position);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public MenuItem removeItem(int position) {
+        checkWritable();
+        return super.removeItem(position);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void removeItems(int start, int end) {
+        checkWritable();
+        super.removeItems(start, end);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public MenuItem updateItem(int position, MenuItem object, @Nullable Object payload) {
+        checkWritable();
+        return super.updateItem(position, object, payload);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void setMaxItemCount(int maxItemCount) {
+        checkWritable();
+        super.setMaxItemCount(maxItemCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException If the adapter was created from a menu resource, its items are read only
+     */
+    @Override
+    public void submitList(@Nullable List<MenuItem> items) {
+        checkWritable();
+        super.submitList(items);
+    }
+
+    private void checkWritable() {
+        if (mTree != null) throw new UnsupportedOperationException(READ_ONLY);
+    }
+
+    @NonNull
+    private MenuTreeList requireTree() {
+        if (mTree == null) throw new IllegalStateException("Submenus can only be expanded when created from a menu resource");
+        return mTree;
+    }
+
+    @NonNull
+    private static Menu createMenu(@NonNull Context context, @MenuRes int menuRes) {
+        RecyclerMenu menu = new RecyclerMenu(context);
+        inflateMenu(context, menuRes, menu);
+        return menu;
+    }
+
+    /**
+     * Fills the menu with the items of the menu resource. Parsed menus are cached for the configuration they were
+     * parsed with, later adapters of the same menu copy the cached items instead of parsing the resource again
+     *
+     * @param context The context to create the items with
+     * @param menuRes The menu resource to inflate
+     * @param menu    The empty menu to fill
+     */
+    private static void inflateMenu(@NonNull Context context, @MenuRes int menuRes, @NonNull RecyclerMenu menu) {
+        registerCallbacks(context);
+        Configuration configuration = context.getResources().getConfiguration();
+        RecyclerMenuItem[] cached = sMenuCache.get(new MenuKey(menuRes, configuration));
+
+        if (cached != null) {
+            for (RecyclerMenuItem item : cached) {
+                menu.addItem(item.copy(context));
+            }
+
+            return;
+        }
+
+        new MenuInflater(context).inflate(menuRes, menu);
+        RecyclerMenuItem[] items = new RecyclerMenuItem[menu.size()];
+        Context appContext = context.getApplicationContext();
+
+        for (int i = 0; i < items.length; i++) {
+            RecyclerMenuItem item = (RecyclerMenuItem) menu.getItem(i);
+            // Items referencing objects of the context, such as onClick listeners, can not be shared
+            if (!item.isShareable()) return;
+            items[i] = item.copy(appContext);
+            // Cached items must not refer to the submenus of this adapter
+            items[i].copySubMenus();
+        }
+
+        sMenuCache.put(new MenuKey(menuRes, new Configuration(configuration)), items);
+    }
+
+    private static void registerCallbacks(@NonNull Context context) {
+        if (sCallbacksRegistered) return;
+        sCallbacksRegistered = true;
+
+        context.getApplicationContext().registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+                // Menus parsed for the previous configuration, such as another locale, are not needed anymore
+                sMenuCache.evictAll();
+            }
+
+            @Override
+            public void onLowMemory() {
+                sMenuCache.evictAll();
+            }
+        });
     }
 
     @Override
@@ -60,7 +313,9 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
     @Override
     public void onBindViewHolder(MenuHolder holder, int position) {
         MenuItem item = getItem(position);
-        if (item.getIcon() != null) holder.icon.setImageDrawable(item.getIcon());
+        // Icons of inflated items are resolved only when shown, without being kept by the item
+        Drawable icon = item instanceof RecyclerMenuItem ? ((RecyclerMenuItem) item).loadIcon() : item.getIcon();
+        holder.icon.setImageDrawable(icon);
         holder.title.setText(item.getTitle());
     }
 
@@ -70,6 +325,32 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         super.onDestroy();
     }
 
+    private static final class MenuKey {
+        @MenuRes
+        private final int mMenuRes;
+
+        @NonNull
+        private final Configuration mConfiguration;
+
+        MenuKey(@MenuRes int menuRes, @NonNull Configuration configuration) {
+            mMenuRes = menuRes;
+            mConfiguration = configuration;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MenuKey)) return false;
+            MenuKey other = (MenuKey) o;
+            return mMenuRes == other.mMenuRes && mConfiguration.equals(other.mConfiguration);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mMenuRes + mConfiguration.hashCode();
+        }
+    }
+
     protected static class MenuHolder extends RecyclerView.ViewHolder {
 
         protected ImageView icon;
@@ -83,13 +364,27 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
     }
 
-    private static class RecyclerMenu implements Menu {
+    static class RecyclerMenu implements Menu {
         private Context mContext;
 
         private boolean mIsQwerty;
 
         private ArrayList<RecyclerMenuItem> mItems;
 
+        // Index in mItems of the first item with each id
+        private final SparseIntArray mIdIndex = new SparseIntArray();
+
+        // Items of each group, in menu order
+        private final SparseArray<ArrayList<RecyclerMenuItem>> mGroups = new SparseArray<>();
+
+        // First item with each shortcut, for qwerty and numeric keyboards
+        private final SparseArray<RecyclerMenuItem> mAlphabeticShortcuts = new SparseArray<>();
+
+        private final SparseArray<RecyclerMenuItem> mNumericShortcuts = new SparseArray<>();
+
+        // Shortcuts are rebuilt when next needed after an item's shortcut changes or the item owning one is removed
+        private boolean mShortcutsStale = false;
+
         public RecyclerMenu(Context context) {
             mContext = context;
             mItems = new ArrayList<>();
@@ -114,10 +409,17 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         public MenuItem add(int groupId, int itemId, int order, CharSequence title) {
             RecyclerMenuItem item = new RecyclerMenuItem(getContext(), groupId, itemId, 0, order, title);
             // TODO Order is ignored here.
-            mItems.add(item);
+            addItem(item);
             return item;
         }
 
+        void addItem(@NonNull RecyclerMenuItem item) {
+            item.setMenu(this);
+            mItems.add(item);
+            indexItem(item, mItems.size() - 1);
+            if (item.getAlphabeticShortcut() != 0 || item.getNumericShortcut() != 0) mShortcutsStale = true;
+        }
+
         public int addIntentOptions(int groupId, int itemId, int order,
                                     ComponentName caller, Intent[] specifics, Intent intent, int flags,
                                     MenuItem[] outSpecificItems) {
@@ -149,53 +451,108 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public SubMenu addSubMenu(CharSequence title) {
-            // TODO Implement submenus
-            return null;
+            return addSubMenu(0, 0, 0, title);
         }
 
         public SubMenu addSubMenu(int titleRes) {
-            // TODO Implement submenus
-            return null;
+            return addSubMenu(0, 0, 0, titleRes);
         }
 
         public SubMenu addSubMenu(int groupId, int itemId, int order,
                                   CharSequence title) {
-            // TODO Implement submenus
-            return null;
+            RecyclerMenuItem item = new RecyclerMenuItem(getContext(), groupId, itemId, 0, order, title);
+            RecyclerSubMenu subMenu = new RecyclerSubMenu(getContext(), item);
+            item.setSubMenu(subMenu);
+            addItem(item);
+            return subMenu;
         }
 
         public SubMenu addSubMenu(int groupId, int itemId, int order, int titleRes) {
-            // TODO Implement submenus
-            return null;
+            return addSubMenu(groupId, itemId, order, mContext.getResources().getString(titleRes));
         }
 
         public void clear() {
             mItems.clear();
+            mIdIndex.clear();
+            mGroups.clear();
+            mAlphabeticShortcuts.clear();
+            mNumericShortcuts.clear();
+            mShortcutsStale = false;
         }
 
         public void close() {
         }
 
-        private int findItemIndex(int id) {
-            final ArrayList<RecyclerMenuItem> items = mItems;
-            final int itemCount = items.size();
-            for (int i = 0; i < itemCount; i++) {
-                if (items.get(i).getItemId() == id) {
-                    return i;
-                }
+        private void indexItem(@NonNull RecyclerMenuItem item, int index) {
+            if (mIdIndex.indexOfKey(item.getItemId()) < 0) mIdIndex.put(item.getItemId(), index);
+            ArrayList<RecyclerMenuItem> group = mGroups.get(item.getGroupId());
+
+            if (group == null) {
+                group = new ArrayList<>();
+                mGroups.put(item.getGroupId(), group);
             }
 
-            return -1;
+            group.add(item);
+        }
+
+        private void ensureShortcuts() {
+            if (!mShortcutsStale) return;
+            mAlphabeticShortcuts.clear();
+            mNumericShortcuts.clear();
+
+            for (int i = 0; i < mItems.size(); i++) {
+                RecyclerMenuItem item = mItems.get(i);
+                char alphabetic = item.getAlphabeticShortcut();
+                char numeric = item.getNumericShortcut();
+                if (alphabetic != 0 && mAlphabeticShortcuts.indexOfKey(alphabetic) < 0) mAlphabeticShortcuts.put(alphabetic, item);
+                if (numeric != 0 && mNumericShortcuts.indexOfKey(numeric) < 0) mNumericShortcuts.put(numeric, item);
+            }
+
+            mShortcutsStale = false;
+        }
+
+        /**
+         * Called by the items of the menu when their shortcuts change
+         */
+        void onShortcutsChanged() {
+            mShortcutsStale = true;
+        }
+
+        /**
+         * Called after an item was removed, the shortcuts are only rebuilt if the item owned one of them
+         *
+         * @param item The removed item
+         */
+        private void onItemRemoved(@NonNull RecyclerMenuItem item) {
+            char alphabetic = item.getAlphabeticShortcut();
+            char numeric = item.getNumericShortcut();
+            if (alphabetic != 0 && mAlphabeticShortcuts.get(alphabetic) == item) mShortcutsStale = true;
+            if (numeric != 0 && mNumericShortcuts.get(numeric) == item) mShortcutsStale = true;
+        }
+
+        private int findItemIndex(int id) {
+            return mIdIndex.get(id, -1);
+        }
+
+        @Nullable
+        private ArrayList<RecyclerMenuItem> findGroup(int groupId) {
+            return mGroups.get(groupId);
         }
 
         public MenuItem findItem(int id) {
-            return mItems.get(findItemIndex(id));
+            final int index = findItemIndex(id);
+            return index >= 0 ? mItems.get(index) : null;
         }
 
         public MenuItem getItem(int index) {
             return mItems.get(index);
         }
 
+        @NonNull
+        RecyclerMenuItem getRecyclerItem(int index) {
+            return mItems.get(index);
+        }
+
         public boolean hasVisibleItems() {
             final ArrayList<RecyclerMenuItem> items = mItems;
             final int itemCount = items.size();
@@ -211,19 +568,8 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
 
         private RecyclerMenuItem findItemWithShortcut(int keyCode, KeyEvent event) {
             // TODO Make this smarter.
-            final boolean qwerty = mIsQwerty;
-            final ArrayList<RecyclerMenuItem> items = mItems;
-            final int itemCount = items.size();
-
-            for (int i = 0; i < itemCount; i++) {
-                RecyclerMenuItem item = items.get(i);
-                final char shortcut = qwerty ? item.getAlphabeticShortcut() :
-                        item.getNumericShortcut();
-                if (keyCode == shortcut) {
-                    return item;
-                }
-            }
-            return null;
+            ensureShortcuts();
+            return mIsQwerty ? mAlphabeticShortcuts.get(keyCode) : mNumericShortcuts.get(keyCode);
         }
 
         public boolean isShortcutKey(int keyCode, KeyEvent event) {
@@ -249,58 +595,85 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public void removeGroup(int groupId) {
+            if (findGroup(groupId) == null) return;
             final ArrayList<RecyclerMenuItem> items = mItems;
-            int itemCount = items.size();
-            int i = 0;
-            while (i < itemCount) {
-                if (items.get(i).getGroupId() == groupId) {
-                    items.remove(i);
-                    itemCount--;
-                } else {
-                    i++;
+            final int itemCount = items.size();
+            int kept = 0;
+            mIdIndex.clear();
+
+            // Compacts the remaining items and indexes their ids at their new positions in a single pass
+            for (int i = 0; i < itemCount; i++) {
+                RecyclerMenuItem item = items.get(i);
+
+                if (item.getGroupId() == groupId) {
+                    onItemRemoved(item);
+                    continue;
                 }
+
+                if (mIdIndex.indexOfKey(item.getItemId()) < 0) mIdIndex.put(item.getItemId(), kept);
+                items.set(kept++, item);
             }
+
+            items.subList(kept, itemCount).clear();
+            mGroups.remove(groupId);
         }
 
         public void removeItem(int id) {
-            mItems.remove(findItemIndex(id));
+            final int index = findItemIndex(id);
+            if (index < 0) return;
+            RecyclerMenuItem item = mItems.remove(index);
+            onItemRemoved(item);
+
+            // Only the indexes past the removed item shift, the other items keep theirs
+            for (int i = mIdIndex.size() - 1; i >= 0; i--) {
+                int itemIndex = mIdIndex.valueAt(i);
+                if (itemIndex > index) mIdIndex.put(mIdIndex.keyAt(i), itemIndex - 1);
+            }
+
+            int next = -1;
+
+            for (int i = index; i < mItems.size() && next < 0; i++) {
+                if (mItems.get(i).getItemId() == id) next = i;
+            }
+
+            if (next >= 0) {
+                mIdIndex.put(id, next);
+            } else {
+                mIdIndex.delete(id);
+            }
+
+            ArrayList<RecyclerMenuItem> group = mGroups.get(item.getGroupId());
+            group.remove(item);
+            if (group.isEmpty()) mGroups.remove(item.getGroupId());
         }
 
         public void setGroupCheckable(int group, boolean checkable,
                                       boolean exclusive) {
-            final ArrayList<RecyclerMenuItem> items = mItems;
-            final int itemCount = items.size();
+            final ArrayList<RecyclerMenuItem> items = findGroup(group);
+            if (items == null) return;
 
-            for (int i = 0; i < itemCount; i++) {
+            for (int i = 0; i < items.size(); i++) {
                 RecyclerMenuItem item = items.get(i);
-                if (item.getGroupId() == group) {
-                    item.setCheckable(checkable);
-                    item.setExclusiveCheckable(exclusive);
-                }
+                item.setCheckable(checkable);
+                item.setExclusiveCheckable(exclusive);
             }
         }
 
         public void setGroupEnabled(int group, boolean enabled) {
-            final ArrayList<RecyclerMenuItem> items = mItems;
-            final int itemCount = items.size();
+            final ArrayList<RecyclerMenuItem> items = findGroup(group);
+            if (items == null) return;
 
-            for (int i = 0; i < itemCount; i++) {
-                RecyclerMenuItem item = items.get(i);
-                if (item.getGroupId() == group) {
-                    item.setEnabled(enabled);
-                }
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setEnabled(enabled);
             }
         }
 
         public void setGroupVisible(int group, boolean visible) {
-            final ArrayList<RecyclerMenuItem> items = mItems;
-            final int itemCount = items.size();
+            final ArrayList<RecyclerMenuItem> items = findGroup(group);
+            if (items == null) return;
 
-            for (int i = 0; i < itemCount; i++) {
-                RecyclerMenuItem item = items.get(i);
-                if (item.getGroupId() == group) {
-                    item.setVisible(visible);
-                }
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setVisible(visible);
             }
         }
 
@@ -313,6 +686,55 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
     }
 
+    /**
+     * Submenu of a {@link RecyclerMenuItem}. The item itself is shown as the header, so header changes are ignored
+     */
+    private static class RecyclerSubMenu extends RecyclerMenu implements SubMenu {
+        private final RecyclerMenuItem mItem;
+
+        public RecyclerSubMenu(Context context, RecyclerMenuItem item) {
+            super(context);
+            mItem = item;
+        }
+
+        public SubMenu setHeaderTitle(int titleRes) {
+            return this;
+        }
+
+        public SubMenu setHeaderTitle(CharSequence title) {
+            return this;
+        }
+
+        public SubMenu setHeaderIcon(int iconRes) {
+            return this;
+        }
+
+        public SubMenu setHeaderIcon(Drawable icon) {
+            return this;
+        }
+
+        public SubMenu setHeaderView(View view) {
+            return this;
+        }
+
+        public void clearHeader() {
+        }
+
+        public SubMenu setIcon(int iconRes) {
+            mItem.setIcon(iconRes);
+            return this;
+        }
+
+        public SubMenu setIcon(Drawable icon) {
+            mItem.setIcon(icon);
+            return this;
+        }
+
+        public MenuItem getItem() {
+            return mItem;
+        }
+    }
+
     private static class RecyclerMenuItem implements MenuItem {
         private final int mId;
 
@@ -340,6 +762,17 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
 
         private MenuItem.OnMenuItemClickListener mClickListener;
 
+        // Menu the item belongs to, told when the shortcuts change
+        @Nullable
+        private RecyclerMenu mMenu;
+
+        @Nullable
+        private RecyclerSubMenu mSubMenu;
+
+        // Submenu of the item this one was copied from, its items are copied when the submenu is first needed
+        @Nullable
+        private RecyclerSubMenu mSubMenuSource;
+
         private static final int NO_ICON = 0;
 
         private int mFlags = ENABLED;
@@ -373,6 +806,70 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
             mTitle = title;
         }
 
+        /**
+         * Creates a copy of the item with the given context that does not belong to a menu
+         *
+         * @param context Context of the copy
+         * @return
+         */
+        @NonNull
+        RecyclerMenuItem copy(@NonNull Context context) {
+            RecyclerMenuItem copy = new RecyclerMenuItem(context, mGroup, mId, mCategoryOrder, mOrdering, mTitle);
+            copy.mTitleCondensed = mTitleCondensed;
+            copy.mIntent = mIntent != null ? new Intent(mIntent) : null;
+            copy.mShortcutNumericChar = mShortcutNumericChar;
+            copy.mShortcutAlphabeticChar = mShortcutAlphabeticChar;
+            copy.mIconDrawable = mIconDrawable;
+            copy.mIconResId = mIconResId;
+            copy.mClickListener = mClickListener;
+            copy.mFlags = mFlags;
+            copy.mSubMenuSource = mSubMenu != null ? mSubMenu : mSubMenuSource;
+            return copy;
+        }
+
+        /**
+         * Copies the items of the submenus of the item and of their items, so the item no longer refers to the
+         * submenus it was copied from
+         */
+        void copySubMenus() {
+            if (getSubMenu() == null) return;
+
+            for (int i = 0; i < mSubMenu.size(); i++) {
+                mSubMenu.getRecyclerItem(i).copySubMenus();
+            }
+        }
+
+        void setSubMenu(@Nullable RecyclerSubMenu subMenu) {
+            mSubMenu = subMenu;
+            mSubMenuSource = null;
+        }
+
+        /**
+         * Returns if copies of the item can be shared between contexts, which is not the case when it holds a
+         * listener or drawable that may reference the context it was created with
+         *
+         * @return
+         */
+        boolean isShareable() {
+            if (mClickListener != null || mIconDrawable != null) return false;
+            RecyclerSubMenu subMenu = mSubMenu != null ? mSubMenu : mSubMenuSource;
+            if (subMenu == null) return true;
+
+            for (int i = 0; i < subMenu.size(); i++) {
+                if (!subMenu.getRecyclerItem(i).isShareable()) return false;
+            }
+
+            return true;
+        }
+
+        void setMenu(@Nullable RecyclerMenu menu) {
+            mMenu = menu;
+        }
+
+        private void onShortcutsChanged() {
+            if (mMenu != null) mMenu.onShortcutsChanged();
+        }
+
         @Override
         public ContextMenu.ContextMenuInfo getMenuInfo() {
             return null;
@@ -387,9 +884,25 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public Drawable getIcon() {
+            if (mIconDrawable == null && mIconResId != NO_ICON) {
+                mIconDrawable = DrawableCache.getDrawable(mContext, mIconResId);
+            }
+
             return mIconDrawable;
         }
 
+        /**
+         * Returns the icon of the item. Icons set by resource are created from the shared {@link DrawableCache}
+         * every time and not kept by the item
+         *
+         * @return
+         */
+        @Nullable
+        Drawable loadIcon() {
+            if (mIconDrawable != null || mIconResId == NO_ICON) return mIconDrawable;
+            return DrawableCache.getDrawable(mContext, mIconResId);
+        }
+
         public Intent getIntent() {
             return mIntent;
         }
@@ -407,7 +920,17 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public SubMenu getSubMenu() {
-            return null;
+            if (mSubMenu == null && mSubMenuSource != null) {
+                // Items of copied submenus are created when first needed, most submenus are never expanded
+                RecyclerSubMenu source = mSubMenuSource;
+                setSubMenu(new RecyclerSubMenu(mContext, this));
+
+                for (int i = 0; i < source.size(); i++) {
+                    mSubMenu.addItem(source.getRecyclerItem(i).copy(mContext));
+                }
+            }
+
+            return mSubMenu;
         }
 
         public CharSequence getTitle() {
@@ -419,7 +942,7 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public boolean hasSubMenu() {
-            return false;
+            return mSubMenu != null || mSubMenuSource != null;
         }
 
         public boolean isCheckable() {
@@ -440,6 +963,7 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
 
         public MenuItem setAlphabeticShortcut(char alphaChar) {
             mShortcutAlphabeticChar = alphaChar;
+            onShortcutsChanged();
             return this;
         }
 
@@ -471,8 +995,9 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
 
         public MenuItem setIcon(int iconRes) {
             if (iconRes != NO_ICON) {
+                // Resolved when first needed, most icons of a large menu are never shown
                 mIconResId = iconRes;
-                mIconDrawable = mContext.getResources().getDrawable(iconRes);
+                mIconDrawable = null;
             }
 
             return this;
@@ -485,6 +1010,7 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
 
         public MenuItem setNumericShortcut(char numericChar) {
             mShortcutNumericChar = numericChar;
+            onShortcutsChanged();
             return this;
         }
 
@@ -496,6 +1022,7 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         public MenuItem setShortcut(char numericChar, char alphaChar) {
             mShortcutNumericChar = numericChar;
             mShortcutAlphabeticChar = alphaChar;
+            onShortcutsChanged();
             return this;
         }
 
@@ -515,7 +1042,7 @@ public class MenuRecyclerAdapter extends BaseRecyclerAdapter<MenuItem, MenuRecyc
         }
 
         public MenuItem setVisible(boolean visible) {
-            mFlags = (mFlags & HIDDEN) | (visible ? 0 : HIDDEN);
+            mFlags = (mFlags & ~HIDDEN) | (visible ? 0 : HIDDEN);
             return this;
         }
 
@@ -0,0 +1,209 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.view.Menu;
+import android.view.MenuItem;
+
+import java.util.AbstractList;
+
+/**
+ * Read only {@link java.util.List} of the rows of a menu, where the items of an expanded submenu follow the item
+ * they belong to. Submenus are read only when they are expanded.
+ * <p>
+ * Every menu and expanded submenu keeps a Fenwick tree of the rows of its items, one for the item plus the rows of
+ * its expanded submenu. Finding the item of a position walks down the expanded submenus with a search of each tree,
+ * and expanding or collapsing updates the trees up to the root, both in O(depth * log n). Used as the backing list of
+ * {@link MenuRecyclerAdapter}, not thread safe.
+ */
+final class MenuTreeList extends AbstractList<MenuItem> {
+
+    private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+
+    @NonNull
+    private Level mRoot;
+
+    // Result of the last call to locate(int)
+    private Level mFoundLevel;
+
+    private int mFoundIndex;
+
+    MenuTreeList(@NonNull Menu menu) {
+        mRoot = new Level(itemsOf(menu), null, -1, 0);
+    }
+
+    @Override
+    public MenuItem get(int index) {
+        locate(index);
+        return mFoundLevel.items[mFoundIndex];
+    }
+
+    @Override
+    public int size() {
+        return mRoot.rows;
+    }
+
+    @Override
+    public void clear() {
+        mRoot = new Level(NO_ITEMS, null, -1, 0);
+        modCount++;
+    }
+
+    /**
+     * Returns the depth of the item at the given position, 0 for the items of the menu itself
+     *
+     * @param position The position of the item
+     * @return
+     */
+    int getDepth(int position) {
+        locate(position);
+        return mFoundLevel.depth;
+    }
+
+    boolean isExpanded(int position) {
+        locate(position);
+        return mFoundLevel.expanded.get(mFoundIndex) != null;
+    }
+
+    /**
+     * Shows the items of the submenu of the item at the given position below it
+     *
+     * @param position The position of the item
+     * @return The number of rows inserted after the position, 0 if the item has no submenu or it is already expanded
+     */
+    int expand(int position) {
+        locate(position);
+        Level level = mFoundLevel;
+        int index = mFoundIndex;
+        MenuItem item = level.items[index];
+        if (!item.hasSubMenu() || level.expanded.get(index) != null) return 0;
+
+        Level child = new Level(itemsOf(item.getSubMenu()), level, index, level.depth + 1);
+        level.expanded.put(index, child);
+        addRows(level, index, child.rows);
+        modCount++;
+        return child.rows;
+    }
+
+    /**
+     * Hides the items of the submenu of the item at the given position, including the ones of expanded nested submenus
+     *
+     * @param position The position of the item
+     * @return The number of rows removed after the position, 0 if the item is not expanded
+     */
+    int collapse(int position) {
+        locate(position);
+        Level level = mFoundLevel;
+        int index = mFoundIndex;
+        Level child = level.expanded.get(index);
+        if (child == null) return 0;
+
+        level.expanded.remove(index);
+        addRows(level, index, -child.rows);
+        modCount++;
+        return child.rows;
+    }
+
+    /**
+     * Finds the level and index of the item at the given position, stored in mFoundLevel and mFoundIndex
+     */
+    private void locate(int position) {
+        if (position < 0 || position >= mRoot.rows) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: " + mRoot.rows);
+        }
+
+        Level level = mRoot;
+        int remaining = position;
+
+        while (true) {
+            int[] tree = level.tree;
+            int count = level.items.length;
+            int index = 0;
+
+            // Finds the number of items whose rows all come before the position
+            for (int step = Integer.highestOneBit(count); step > 0; step >>= 1) {
+                int next = index + step;
+
+                if (next <= count && tree[next] <= remaining) {
+                    index = next;
+                    remaining -= tree[next];
+                }
+            }
+
+            if (remaining == 0) {
+                mFoundLevel = level;
+                mFoundIndex = index;
+                return;
+            }
+
+            // The position is in the expanded submenu of the item, after the item's own row
+            level = level.expanded.get(index);
+            remaining--;
+        }
+    }
+
+    private static void addRows(@Nullable Level level, int index, int delta) {
+        while (level != null) {
+            level.add(index, delta);
+            index = level.indexInParent;
+            level = level.parent;
+        }
+    }
+
+    @NonNull
+    private static MenuItem[] itemsOf(@NonNull Menu menu) {
+        MenuItem[] items = new MenuItem[menu.size()];
+
+        for (int i = 0; i < items.length; i++) {
+            items[i] = menu.getItem(i);
+        }
+
+        return items;
+    }
+
+    private static final class Level {
+        @NonNull
+        final MenuItem[] items;
+
+        // Fenwick tree of the rows of each item, indexed from 1
+        final int[] tree;
+
+        // Levels of the expanded submenus by the index of their item
+        final SparseArray<Level> expanded = new SparseArray<>();
+
+        @Nullable
+        final Level parent;
+
+        final int indexInParent;
+
+        final int depth;
+
+        // Total rows of the level, including the ones of expanded submenus
+        int rows;
+
+        Level(@NonNull MenuItem[] items, @Nullable Level parent, int indexInParent, int depth) {
+            this.items = items;
+            this.parent = parent;
+            this.indexInParent = indexInParent;
+            this.depth = depth;
+            tree = new int[items.length + 1];
+            rows = items.length;
+
+            // Every item starts as a single row, built in linear time by pushing each node into its parent
+            for (int i = 1; i <= items.length; i++) {
+                tree[i]++;
+                int next = i + (i & -i);
+                if (next <= items.length) tree[next] += tree[i];
+            }
+        }
+
+        void add(int index, int delta) {
+            rows += delta;
+
+            for (int i = index + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+    }
+}
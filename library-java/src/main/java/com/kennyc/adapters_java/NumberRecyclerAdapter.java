@@ -0,0 +1,379 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.IdRes;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+/**
+ * Base of the {@link RecyclerView.Adapter}s rendering primitive numbers into a single {@link TextView}, see
+ * {@link IntRecyclerAdapter}, {@link LongRecyclerAdapter} and {@link DoubleRecyclerAdapter}. Numbers are formatted
+ * into a reused char array and set with {@link TextView#setText(char[], int, int)}, so binding does not allocate.
+ * Subclasses store their values in a growable primitive array, this class manages its size and the notifications.
+ */
+public abstract class NumberRecyclerAdapter extends RecyclerView.Adapter<NumberRecyclerAdapter.NumberViewHolder> {
+
+    /**
+     * Size of the buffer passed to {@link #formatItem(int, char[])}
+     */
+    protected static final int MAX_TEXT_LENGTH = 32;
+
+    private static final String LONG_MIN_VALUE = String.valueOf(Long.MIN_VALUE);
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L,
+            100000000L, 1000000000L};
+
+    // Largest scaled value formatted without falling back to Double.toString(), doubles are exact integers below 2^53
+    private static final double MAX_SCALED_DOUBLE = 9007199254740992d;
+
+    protected final String TAG = getClass().getSimpleName();
+
+    final UpdateBatch mUpdates = new UpdateBatch(new AdapterUpdateCallback(this));
+
+    private LayoutInflater mInflater;
+
+    @IdRes
+    private int mTextViewId = 0;
+
+    @LayoutRes
+    private int mLayoutResource = 0;
+
+    @Nullable
+    private View.OnClickListener mClickListener = null;
+
+    // Numbers are formatted into this buffer and only copied to the holder when the text differs
+    private final char[] mFormatBuffer = new char[MAX_TEXT_LENGTH];
+
+    // Number of values stored, the array of the subclass may be larger
+    int mSize = 0;
+
+    /**
+     * Constructor for creating a {@link NumberRecyclerAdapter}
+     *
+     * @param context            App context
+     * @param layoutResource     The layout to use for the adapter
+     * @param textViewResourceId The id of the {@link TextView} in the layout, 0 if the layout is a {@link TextView}
+     * @param clickListener      Click Listener for receiving click events. Null safe
+     */
+    NumberRecyclerAdapter(@NonNull Context context, @LayoutRes int layoutResource, @IdRes int textViewResourceId, @Nullable View.OnClickListener clickListener) {
+        mInflater = LayoutInflater.from(context);
+        mLayoutResource = layoutResource;
+        mTextViewId = textViewResourceId;
+        mClickListener = clickListener;
+    }
+
+    @Override
+    public NumberViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        NumberViewHolder vh = new NumberViewHolder(ViewHolderWarmer.inflaterForCurrentThread(mInflater).inflate(mLayoutResource, parent, false), mTextViewId);
+        vh.itemView.setOnClickListener(mClickListener);
+        return vh;
+    }
+
+    @Override
+    public void onBindViewHolder(NumberViewHolder holder, int position) {
+        holder.setText(mFormatBuffer, formatItem(position, mFormatBuffer));
+    }
+
+    /**
+     * Formats the item at the given position into the buffer
+     *
+     * @param position The position of the item
+     * @param buffer   The buffer to write the text to, {@link #MAX_TEXT_LENGTH} chars long
+     * @return The number of chars written
+     */
+    protected abstract int formatItem(int position, @NonNull char[] buffer);
+
+    /**
+     * Returns the primitive array the values are stored in
+     *
+     * @return
+     */
+    @NonNull
+    abstract Object getArray();
+
+    /**
+     * Returns the length of the array the values are stored in
+     *
+     * @return
+     */
+    abstract int getCapacity();
+
+    /**
+     * Replaces the array the values are stored in with a copy of the given length
+     *
+     * @param capacity The length of the new array
+     */
+    abstract void setCapacity(int capacity);
+
+    @Override
+    public int getItemCount() {
+        return mSize;
+    }
+
+    /**
+     * Returns if the adapter is empty
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return getItemCount() <= 0;
+    }
+
+    /**
+     * Opens a batch of mutations. Notifications for mutations made until {@link #commitBatch()} is called are
+     * recorded and merged into the smallest set of range notifications. Batches may be nested
+     */
+    @MainThread
+    public void beginBatch() {
+        mUpdates.begin();
+    }
+
+    /**
+     * Closes the batch opened with {@link #beginBatch()}, dispatching the merged notifications if it is the
+     * outermost batch
+     */
+    @MainThread
+    public void commitBatch() {
+        mUpdates.commit();
+    }
+
+    /**
+     * Runs the given mutations inside a batch, see {@link #beginBatch()}
+     *
+     * @param mutations The mutations to run
+     */
+    @MainThread
+    public void batch(@NonNull Runnable mutations) {
+        mUpdates.begin();
+
+        try {
+            mutations.run();
+        } finally {
+            mUpdates.commit();
+        }
+    }
+
+    /**
+     * Copies values into the array at the given position, {@link #notifyItemRangeInserted(int, int)} will be called
+     *
+     * @param values   Primitive array of the same type as the array the values are stored in
+     * @param count    The number of values to copy
+     * @param position The position to insert the values at
+     */
+    void insertValues(@NonNull Object values, int count, int position) {
+        openGap(position, count);
+        System.arraycopy(values, 0, getArray(), position, count);
+        mUpdates.onInserted(position, count);
+    }
+
+    /**
+     * Makes room for values at the given position, growing the array if needed. The values in the gap are left as
+     * they were and must be written by the caller
+     *
+     * @param position The position of the gap
+     * @param count    The number of values to make room for
+     */
+    void openGap(int position, int count) {
+        if (position < 0 || position > mSize) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + mSize);
+        }
+
+        int size = mSize + count;
+        if (size > getCapacity()) setCapacity(grow(getCapacity(), size));
+        Object array = getArray();
+        System.arraycopy(array, position, array, position + count, mSize - position);
+        mSize = size;
+    }
+
+    /**
+     * Validates a position of a stored value
+     *
+     * @param position The position
+     */
+    void checkPosition(int position) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + mSize);
+        }
+    }
+
+    /**
+     * Removes a range of values from the adapter, {@link #notifyItemRangeRemoved(int, int)} will be called
+     *
+     * @param start Starting position of removal
+     * @param end   Ending position of removal
+     */
+    public void removeItems(int start, int end) {
+        if (start < 0 || end > mSize || start > end) {
+            throw new IndexOutOfBoundsException("Range " + start + " to " + end + " out of bounds for size " + mSize);
+        }
+
+        Object array = getArray();
+        System.arraycopy(array, end, array, start, mSize - end);
+        mSize -= end - start;
+        mUpdates.onRemoved(start, end - start);
+    }
+
+    /**
+     * Removes all values from the list, {@link #notifyItemRangeRemoved(int, int)} will be called
+     */
+    public void clear() {
+        int size = mSize;
+        mSize = 0;
+        mUpdates.onRemoved(0, size);
+    }
+
+    /**
+     * Returns the capacity to grow an array of the given capacity to so that it holds at least the required size
+     *
+     * @param capacity The current capacity
+     * @param required The required capacity
+     * @return
+     */
+    static int grow(int capacity, int required) {
+        if (required < 0) throw new OutOfMemoryError("Required array size too large");
+        int grown = capacity + (capacity >> 1) + 1;
+        return grown - required > 0 ? grown : required;
+    }
+
+    /**
+     * Writes the decimal digits of the value to the buffer
+     *
+     * @param value  The value to format
+     * @param buffer The buffer to write to
+     * @param offset The position in the buffer to start writing at
+     * @return The position after the last char written
+     */
+    protected static int formatLong(long value, @NonNull char[] buffer, int offset) {
+        if (value == Long.MIN_VALUE) {
+            LONG_MIN_VALUE.getChars(0, LONG_MIN_VALUE.length(), buffer, offset);
+            return offset + LONG_MIN_VALUE.length();
+        }
+
+        if (value < 0) {
+            buffer[offset++] = '-';
+            value = -value;
+        }
+
+        int digits = 1;
+
+        for (long remaining = value; remaining >= 10; remaining /= 10) {
+            digits++;
+        }
+
+        int end = offset + digits;
+
+        for (int i = end - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return end;
+    }
+
+    /**
+     * Writes the value rounded to the given number of fraction digits to the buffer. Values too large to be rounded
+     * exactly, NaN and infinities are written with {@link Double#toString(double)}
+     *
+     * @param value          The value to format
+     * @param fractionDigits The number of digits after the decimal point, between 0 and 9
+     * @param buffer         The buffer to write to
+     * @param offset         The position in the buffer to start writing at
+     * @return The position after the last char written
+     */
+    protected static int formatDouble(double value, int fractionDigits, @NonNull char[] buffer, int offset) {
+        long scale = POWERS_OF_TEN[fractionDigits];
+        double scaled = Math.abs(value) * scale;
+
+        if (Double.isNaN(value) || !(scaled < MAX_SCALED_DOUBLE)) {
+            String text = Double.toString(value);
+            text.getChars(0, text.length(), buffer, offset);
+            return offset + text.length();
+        }
+
+        long rounded = Math.round(scaled);
+        // Values rounding to zero are written without a sign
+        if (value < 0 && rounded != 0) buffer[offset++] = '-';
+        offset = formatLong(rounded / scale, buffer, offset);
+        if (fractionDigits == 0) return offset;
+
+        buffer[offset++] = '.';
+        long fraction = rounded % scale;
+
+        for (int i = offset + fractionDigits - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + fraction % 10);
+            fraction /= 10;
+        }
+
+        return offset + fractionDigits;
+    }
+
+    /**
+     * Validates the number of fraction digits passed to {@link #formatDouble(double, int, char[], int)}
+     *
+     * @param fractionDigits The number of fraction digits
+     * @return
+     */
+    static int checkFractionDigits(int fractionDigits) {
+        if (fractionDigits < 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Fraction digits must be between 0 and " + (POWERS_OF_TEN.length - 1));
+        }
+
+        return fractionDigits;
+    }
+
+    /**
+     * Frees up any resources tied to the adapter. Should be called in an activities onDestroy lifecycle method if needed
+     */
+    public void onDestroy() {
+        mInflater = null;
+    }
+
+    public static class NumberViewHolder extends RecyclerView.ViewHolder {
+        public TextView textView;
+
+        // Text currently displayed by the TextView, which keeps a reference to the array
+        @Nullable
+        private char[] mText;
+
+        private int mTextLength = -1;
+
+        public NumberViewHolder(View view, @IdRes int textViewId) {
+            super(view);
+            if (textViewId == 0) {
+                textView = (TextView) view;
+            } else {
+                textView = (TextView) view.findViewById(textViewId);
+            }
+
+            if (textView == null) throw new IllegalArgumentException("View is not a TextView");
+        }
+
+        void setText(@NonNull char[] text, int length) {
+            // Setting identical text still triggers a measure and layout of the TextView
+            if (length == mTextLength && regionEquals(text, mText, length)) return;
+
+            // The TextView only reads the array, it may only be changed right before it is set again
+            if (mText == null) mText = new char[text.length];
+            System.arraycopy(text, 0, mText, 0, length);
+            mTextLength = length;
+            textView.setText(mText, 0, length);
+        }
+
+        private static boolean regionEquals(@NonNull char[] first, @Nullable char[] second, int length) {
+            if (second == null) return false;
+
+            for (int i = 0; i < length; i++) {
+                if (first[i] != second[i]) return false;
+            }
+
+            return true;
+        }
+    }
+}
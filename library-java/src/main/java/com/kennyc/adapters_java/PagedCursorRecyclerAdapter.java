@@ -0,0 +1,451 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.CallSuper;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v7.widget.RecyclerView;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.SparseBooleanArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link RecyclerView.Adapter} for result sets too large for a single {@link Cursor}. Rows are loaded in fixed size
+ * pages on a background thread, each page being its own small cursor. Pages are queried by key (WHERE key &gt; ?)
+ * using the last key of the previous page, known from {@link PageQuery#getPageEndKeys(int)} or from loading that
+ * page, falling back to an offset otherwise. A bounded number of page cursors is kept, rows whose page is not loaded
+ * are bound as placeholders until it is. Pages holding bound rows are never closed, so the bound may be exceeded
+ * while more pages are visible at once.
+ */
+public abstract class PagedCursorRecyclerAdapter<VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+
+    /**
+     * Source of the pages displayed by a {@link PagedCursorRecyclerAdapter}. All methods are called from a
+     * background thread
+     */
+    public interface PageQuery {
+
+        /**
+         * Returns the total number of rows
+         *
+         * @return
+         */
+        @WorkerThread
+        int getCount();
+
+        /**
+         * Returns the key of the last row of every page, called after {@link #getCount()} on every refresh. This
+         * allows any page to be queried by key, such as when fast scrolling far from the loaded pages
+         *
+         * @param pageSize Number of rows per page
+         * @return The key of the last row of each page, null if pages without a loaded previous page should be
+         * queried by offset
+         */
+        @WorkerThread
+        @Nullable
+        long[] getPageEndKeys(int pageSize);
+
+        /**
+         * Returns the name of the column rows are ordered by. Values must be unique, ascending and readable as a long
+         *
+         * @return
+         */
+        @NonNull
+        String getKeyColumn();
+
+        /**
+         * Queries a page of rows
+         *
+         * @param offset   Position of the first row of the page
+         * @param limit    Maximum number of rows to return
+         * @param afterKey Key of the row before the page if known, in which case it should be used instead of the
+         *                 offset. Null when the offset has to be used
+         * @return A cursor of at most limit rows ordered by the key column
+         */
+        @WorkerThread
+        @NonNull
+        Cursor queryPage(int offset, int limit, @Nullable Long afterKey);
+    }
+
+    protected final String TAG = getClass().getSimpleName();
+
+    private LayoutInflater mInflater;
+
+    @NonNull
+    private final PageQuery mQuery;
+
+    private final int mPageSize;
+
+    private final int mMaxPages;
+
+    // Loaded pages, least recently used first
+    private final LinkedHashMap<Integer, Cursor> mPages = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Pages shown by bound view holders, these pages are never closed
+    private final BoundPages<VH> mBoundPages = new BoundPages<>();
+
+    // Pages currently being loaded
+    private final SparseBooleanArray mLoading = new SparseBooleanArray();
+
+    // Key of the last row of each page, valid when the matching entry of mHasEndKey is set
+    private long[] mEndKeys = new long[0];
+
+    private boolean[] mHasEndKey = new boolean[0];
+
+    private int mCount = 0;
+
+    @Nullable
+    private Executor mExecutor;
+
+    // Incremented on refresh, used to drop pages queried for a previous result set
+    private volatile int mGeneration = 0;
+
+    /**
+     * Creates a {@link PagedCursorRecyclerAdapter}. The row count is loaded immediately, see {@link #refresh()}
+     *
+     * @param context  App context
+     * @param query    The {@link PageQuery} to load pages from
+     * @param pageSize Number of rows per page
+     * @param maxPages Maximum number of page cursors to keep open, exceeded only while rows of more pages are bound
+     */
+    public PagedCursorRecyclerAdapter(@NonNull Context context, @NonNull PageQuery query, int pageSize, int maxPages) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+        if (maxPages < 2) throw new IllegalArgumentException("At least 2 pages must be kept");
+        mInflater = LayoutInflater.from(context);
+        mQuery = query;
+        mPageSize = pageSize;
+        mMaxPages = maxPages;
+        refresh();
+    }
+
+    /**
+     * Sets the {@link Executor} pages are loaded on. Null will use the shared background executor
+     *
+     * @param executor The executor to load pages on
+     */
+    public void setExecutor(@Nullable Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Discards all loaded pages and reloads the row count. Should be called when the underlying data changes
+     */
+    @MainThread
+    public void refresh() {
+        final int generation = ++mGeneration;
+        closePages();
+        mLoading.clear();
+        Arrays.fill(mHasEndKey, false);
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration) return;
+                final int count = mQuery.getCount();
+                final long[] endKeys = mQuery.getPageEndKeys(mPageSize);
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) return;
+                        int pages = (count + mPageSize - 1) / mPageSize;
+                        mEndKeys = new long[pages];
+                        mHasEndKey = new boolean[pages];
+                        mCount = count;
+
+                        if (endKeys != null) {
+                            // The data may have changed between both queries, only keys of existing pages are used
+                            int known = Math.min(pages, endKeys.length);
+                            System.arraycopy(endKeys, 0, mEndKeys, 0, known);
+                            Arrays.fill(mHasEndKey, 0, known, true);
+                        }
+
+                        notifyDataSetChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public int getItemCount() {
+        return mCount;
+    }
+
+    /**
+     * Returns if the adapter is empty
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return getItemCount() <= 0;
+    }
+
+    @Override
+    public final void onBindViewHolder(VH holder, int position) {
+        int page = position / mPageSize;
+        if (mBoundPages.setPage(holder, page)) trimPages(-1);
+        Cursor cursor = mPages.get(page);
+
+        // Load the neighbouring page ahead of time when getting close to it
+        int offsetInPage = position % mPageSize;
+        if (offsetInPage >= mPageSize / 2) {
+            loadPage(page + 1);
+        } else {
+            loadPage(page - 1);
+        }
+
+        if (cursor != null && cursor.moveToPosition(offsetInPage)) {
+            onBindViewHolder(holder, cursor, position);
+        } else {
+            loadPage(page);
+            onBindPlaceholder(holder, position);
+        }
+    }
+
+    /**
+     * Binds a loaded row
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to bind
+     * @param cursor   Cursor moved to the row being bound. Only valid for the duration of this call
+     * @param position Adapter position of the row
+     */
+    protected abstract void onBindViewHolder(@NonNull VH holder, @NonNull Cursor cursor, int position);
+
+    /**
+     * Binds a row whose page has not been loaded yet. The row will be rebound once its page is loaded
+     *
+     * @param holder   The {@link RecyclerView.ViewHolder} to bind
+     * @param position Adapter position of the row
+     */
+    protected abstract void onBindPlaceholder(@NonNull VH holder, int position);
+
+    @CallSuper
+    @Override
+    public void onViewRecycled(VH holder) {
+        super.onViewRecycled(holder);
+        // The page may have been kept over the bound only because it was visible
+        if (mBoundPages.setPage(holder, -1)) trimPages(-1);
+    }
+
+    /**
+     * Closes the least recently used pages until at most the maximum number of pages is open, skipping pages with
+     * bound rows
+     *
+     * @param keep Page to keep open, such as the page that was just loaded
+     */
+    private void trimPages(int keep) {
+        Iterator<Map.Entry<Integer, Cursor>> iterator = mPages.entrySet().iterator();
+
+        while (mPages.size() > mMaxPages && iterator.hasNext()) {
+            Map.Entry<Integer, Cursor> entry = iterator.next();
+            int page = entry.getKey();
+            if (page == keep || mBoundPages.isBound(page)) continue;
+            entry.getValue().close();
+            iterator.remove();
+        }
+    }
+
+    private void closePages() {
+        for (Cursor cursor : mPages.values()) {
+            cursor.close();
+        }
+
+        mPages.clear();
+    }
+
+    private void loadPage(final int page) {
+        if (page < 0 || page >= mEndKeys.length || mLoading.get(page) || mPages.containsKey(page)) return;
+        mLoading.put(page, true);
+        final int generation = mGeneration;
+        final Long afterKey = page > 0 && mHasEndKey[page - 1] ? mEndKeys[page - 1] : null;
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration) return;
+                Cursor queried = null;
+                final Cursor cursor;
+                final boolean hasEndKey;
+                final long endKey;
+
+                try {
+                    queried = mQuery.queryPage(page * mPageSize, mPageSize, afterKey);
+                    // Fills the cursor window off the main thread
+                    int rows = queried.getCount();
+                    hasEndKey = rows > 0 && queried.moveToPosition(rows - 1);
+                    endKey = hasEndKey ? queried.getLong(queried.getColumnIndexOrThrow(mQuery.getKeyColumn())) : 0;
+                    cursor = queried;
+                } catch (RuntimeException e) {
+                    if (queried != null) queried.close();
+                    Log.w(TAG, "Unable to load page " + page, e);
+                    onPageFailed(page, generation);
+                    return;
+                }
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            cursor.close();
+                            return;
+                        }
+
+                        mLoading.delete(page);
+                        mPages.put(page, cursor);
+                        trimPages(page);
+
+                        if (hasEndKey) {
+                            mEndKeys[page] = endKey;
+                            mHasEndKey[page] = true;
+                        }
+
+                        int start = page * mPageSize;
+                        notifyItemRangeChanged(start, Math.min(mPageSize, mCount - start));
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Lets a page whose query failed be loaded again the next time one of its rows is bound
+     *
+     * @param page       The page that failed to load
+     * @param generation The generation the page was loaded for
+     */
+    private void onPageFailed(final int page, final int generation) {
+        AdapterExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation == mGeneration) mLoading.delete(page);
+            }
+        });
+    }
+
+    @NonNull
+    private Executor getExecutor() {
+        return mExecutor != null ? mExecutor : AdapterExecutors.background();
+    }
+
+    /**
+     * Inflates a view from the given layout resource
+     *
+     * @param layoutId Layout resource to inflate
+     * @param parent   Optional parent view
+     * @return
+     */
+    protected View inflateView(@LayoutRes int layoutId, @Nullable ViewGroup parent) {
+        LayoutInflater inflater = ViewHolderWarmer.inflaterForCurrentThread(mInflater);
+
+        if (parent == null) {
+            return inflater.inflate(layoutId, null);
+        }
+
+        return inflater.inflate(layoutId, parent, false);
+    }
+
+    /**
+     * Closes all loaded pages and cancels any pending loads
+     */
+    @CallSuper
+    public void onDestroy() {
+        mGeneration++;
+        closePages();
+        mLoading.clear();
+        mBoundPages.clear();
+        mInflater = null;
+    }
+
+    /**
+     * {@link PageQuery} over a single table of a {@link SQLiteDatabase}, keyed by an integer column
+     */
+    public static class SQLitePageQuery implements PageQuery {
+        @NonNull
+        private final SQLiteDatabase mDatabase;
+
+        @NonNull
+        private final String mTable;
+
+        @NonNull
+        private final String mColumns;
+
+        @NonNull
+        private final String mKeyColumn;
+
+        /**
+         * Creates a {@link SQLitePageQuery}
+         *
+         * @param database  The database to query
+         * @param table     The table to query
+         * @param columns   The columns to return, must include the key column
+         * @param keyColumn The unique integer column rows are ordered by, such as the rowid
+         */
+        public SQLitePageQuery(@NonNull SQLiteDatabase database, @NonNull String table, @NonNull String[] columns, @NonNull String keyColumn) {
+            if (!Arrays.asList(columns).contains(keyColumn)) throw new IllegalArgumentException("Columns must include the key column");
+            mDatabase = database;
+            mTable = table;
+            mColumns = TextUtils.join(",", columns);
+            mKeyColumn = keyColumn;
+        }
+
+        @Override
+        public int getCount() {
+            return (int) DatabaseUtils.queryNumEntries(mDatabase, mTable);
+        }
+
+        @Nullable
+        @Override
+        public long[] getPageEndKeys(int pageSize) {
+            // A single pass over the key column, so no page has to be queried with an OFFSET scanning every row before it
+            Cursor cursor = mDatabase.rawQuery("SELECT " + mKeyColumn + " FROM " + mTable + " ORDER BY " + mKeyColumn, null);
+
+            try {
+                int count = cursor.getCount();
+                long[] keys = new long[(count + pageSize - 1) / pageSize];
+
+                for (int i = 0; i < keys.length; i++) {
+                    cursor.moveToPosition(Math.min((i + 1) * pageSize, count) - 1);
+                    keys[i] = cursor.getLong(0);
+                }
+
+                return keys;
+            } finally {
+                cursor.close();
+            }
+        }
+
+        @NonNull
+        @Override
+        public String getKeyColumn() {
+            return mKeyColumn;
+        }
+
+        @NonNull
+        @Override
+        public Cursor queryPage(int offset, int limit, @Nullable Long afterKey) {
+            if (afterKey != null) {
+                return mDatabase.rawQuery("SELECT " + mColumns + " FROM " + mTable + " WHERE " + mKeyColumn
+                        + " > ? ORDER BY " + mKeyColumn + " LIMIT " + limit, new String[]{String.valueOf(afterKey)});
+            }
+
+            return mDatabase.rawQuery("SELECT " + mColumns + " FROM " + mTable + " ORDER BY " + mKeyColumn
+                    + " LIMIT " + limit + " OFFSET " + offset, null);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Read only {@link java.util.List} of a known size whose items are loaded in fixed size pages. Items of pages that are
+ * not loaded are null. Used as the backing list of {@link PagedRecyclerAdapter}.
+ */
+final class PagedItems<T> extends AbstractList<T> {
+
+    private static final Object[][] NO_PAGES = new Object[0][];
+
+    private final int mPageSize;
+
+    // Items of each page, null for pages that are not loaded
+    private Object[][] mPages = NO_PAGES;
+
+    private int mCount = 0;
+
+    private int mLoadedCount = 0;
+
+    PagedItems(int pageSize) {
+        mPageSize = pageSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= mCount) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mCount);
+        Object[] page = mPages[index / mPageSize];
+        int offset = index % mPageSize;
+        return page != null && offset < page.length ? (T) page[offset] : null;
+    }
+
+    @Override
+    public int size() {
+        return mCount;
+    }
+
+    @Override
+    public void clear() {
+        reset(0);
+    }
+
+    /**
+     * Discards every page and sets the number of items
+     *
+     * @param count The total number of items
+     */
+    void reset(int count) {
+        mCount = count;
+        mPages = count > 0 ? new Object[(count + mPageSize - 1) / mPageSize][] : NO_PAGES;
+        mLoadedCount = 0;
+    }
+
+    /**
+     * Sets the items of a page. Items past the end of the page are ignored
+     *
+     * @param page  The page number
+     * @param items The items of the page
+     * @return The number of items set
+     */
+    int setPage(int page, @NonNull List<T> items) {
+        dropPage(page);
+        int count = Math.min(items.size(), Math.min(mPageSize, mCount - page * mPageSize));
+        Object[] array = items.subList(0, count).toArray();
+        mPages[page] = array;
+        mLoadedCount += array.length;
+        return array.length;
+    }
+
+    void dropPage(int page) {
+        Object[] previous = mPages[page];
+
+        if (previous != null) {
+            mLoadedCount -= previous.length;
+            mPages[page] = null;
+        }
+    }
+
+    boolean isLoaded(int page) {
+        return mPages[page] != null;
+    }
+
+    int getPageSize() {
+        return mPageSize;
+    }
+
+    int getPageCount() {
+        return mPages.length;
+    }
+
+    /**
+     * Returns the number of items in loaded pages
+     *
+     * @return
+     */
+    int getLoadedCount() {
+        return mLoadedCount;
+    }
+}
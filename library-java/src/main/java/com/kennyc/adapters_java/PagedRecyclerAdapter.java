@@ -0,0 +1,399 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.CallSuper;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.util.SparseBooleanArray;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link BaseRecyclerAdapter} for data sets loaded in pages from a {@link PageSource}. The total count is loaded
+ * first and every position is shown right away, positions whose page is not loaded are placeholders for which
+ * {@link #getItem(int)} returns null. Pages are loaded on a background thread when a position near them is bound, and
+ * the pages farthest from the last bound position are dropped when the loaded items exceed the budget. Pages shown by
+ * a bound view holder are never dropped, so the budget is exceeded while more items than it allows are bound.
+ * <p>
+ * Items can not be added, removed or replaced, {@link #refresh()} reloads the data set.
+ */
+public abstract class PagedRecyclerAdapter<T, VH extends RecyclerView.ViewHolder> extends BaseRecyclerAdapter<T, VH> {
+
+    private static final String LOADED_FROM_SOURCE = "Items of a PagedRecyclerAdapter are loaded from its PageSource";
+
+    /**
+     * Source of the pages displayed by a {@link PagedRecyclerAdapter}. All methods are called from a background thread
+     */
+    public interface PageSource<T> {
+
+        /**
+         * Returns the total number of items
+         *
+         * @return
+         */
+        @WorkerThread
+        int getCount();
+
+        /**
+         * Loads a page of items
+         *
+         * @param offset Position of the first item of the page
+         * @param limit  Number of items in the page
+         * @return The items of the page, at most limit items
+         */
+        @WorkerThread
+        @NonNull
+        List<T> loadPage(int offset, int limit);
+    }
+
+    @NonNull
+    private final PageSource<T> mSource;
+
+    @NonNull
+    private final PagedItems<T> mPagedItems;
+
+    private final int mMaxLoadedItems;
+
+    // Pages currently being loaded
+    private final SparseBooleanArray mLoading = new SparseBooleanArray();
+
+    // Pages currently loaded
+    private final SparseBooleanArray mLoaded = new SparseBooleanArray();
+
+    // Pages shown by bound view holders, these pages are not dropped
+    private final BoundPages<VH> mBoundPages = new BoundPages<>();
+
+    // Distance to the edge of a page at which the neighbouring page is loaded
+    private int mLoadDistance;
+
+    private int mLastBoundPage = 0;
+
+    @Nullable
+    private Executor mExecutor;
+
+    // Incremented on refresh, used to drop pages loaded for a previous data set
+    private volatile int mGeneration = 0;
+
+    /**
+     * Creates a {@link PagedRecyclerAdapter}. The item count is loaded immediately, see {@link #refresh()}
+     *
+     * @param context        The context the adapter is running in
+     * @param source         The {@link PageSource} to load pages from
+     * @param pageSize       Number of items per page
+     * @param maxLoadedItems Maximum number of loaded items to keep, at least two pages
+     */
+    public PagedRecyclerAdapter(Context context, @NonNull PageSource<T> source, int pageSize, int maxLoadedItems) {
+        this(context, source, maxLoadedItems, new PagedItems<T>(checkPageSize(pageSize)));
+    }
+
+    private PagedRecyclerAdapter(Context context, @NonNull PageSource<T> source, int maxLoadedItems, @NonNull PagedItems<T> items) {
+        super(context, items);
+        if (maxLoadedItems < items.getPageSize() * 2) throw new IllegalArgumentException("At least 2 pages must be kept");
+        mSource = source;
+        mPagedItems = items;
+        mMaxLoadedItems = maxLoadedItems;
+        mLoadDistance = items.getPageSize() / 2;
+        refresh();
+    }
+
+    private static int checkPageSize(int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+        return pageSize;
+    }
+
+    /**
+     * Sets the {@link Executor} pages are loaded on. Null will use the shared background executor
+     *
+     * @param executor The executor to load pages on
+     */
+    public void setExecutor(@Nullable Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Sets how close to the edge of its page a bound position has to be for the neighbouring page to be loaded.
+     * Defaults to half a page
+     *
+     * @param distance The distance in items
+     */
+    public void setLoadDistance(int distance) {
+        mLoadDistance = distance;
+    }
+
+    /**
+     * Returns if the item at the given position is a placeholder whose page is not loaded
+     *
+     * @param position The position to check
+     * @return
+     */
+    public boolean isPlaceholder(int position) {
+        return !mPagedItems.isLoaded(position / mPagedItems.getPageSize());
+    }
+
+    /**
+     * Discards all loaded pages and reloads the item count. Should be called when the underlying data changes
+     */
+    @MainThread
+    public void refresh() {
+        final int generation = ++mGeneration;
+        mLoading.clear();
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration) return;
+                final int count = mSource.getCount();
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) return;
+                        mPagedItems.reset(count);
+                        mLoaded.clear();
+                        notifyDataSetChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param items Ignored
+     */
+    @Override
+    public void submitList(@Nullable List<T> items) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param object Ignored
+     */
+    @Override
+    public void addItem(T object) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param object   Ignored
+     * @param position Ignored
+     */
+    @Override
+    public void addItem(T object, int position) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param items Ignored
+     */
+    @Override
+    public void addItems(List<T> items) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param items    Ignored
+     * @param position Ignored
+     */
+    @Override
+    public void addItems(List<T> items, int position) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param object Ignored
+     * @return
+     */
+    @Override
+    public boolean removeItem(T object) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param position Ignored
+     * @return
+     */
+    @Override
+    public T removeItem(int position) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param start Ignored
+     * @param end   Ignored
+     */
+    @Override
+    public void removeItems(int start, int end) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the items are loaded from the {@link PageSource}
+     *
+     * @param position Ignored
+     * @param object   Ignored
+     * @param payload  Ignored
+     * @return
+     */
+    @Override
+    public T updateItem(int position, T object, @Nullable Object payload) {
+        throw new UnsupportedOperationException(LOADED_FROM_SOURCE);
+    }
+
+    /**
+     * Not supported, the loaded items are bounded by the maximum passed to the constructor
+     *
+     * @param maxItemCount Ignored
+     */
+    @Override
+    public void setMaxItemCount(int maxItemCount) {
+        throw new UnsupportedOperationException("The loaded items of a PagedRecyclerAdapter are bounded by its maxLoadedItems");
+    }
+
+    /**
+     * Removes all items and cancels any pending loads until {@link #refresh()} is called
+     */
+    @Override
+    public void clear() {
+        mGeneration++;
+        mLoading.clear();
+        mLoaded.clear();
+        mBoundPages.clear();
+        super.clear();
+    }
+
+    @Override
+    public void onBindViewHolder(VH holder, int position, List<Object> payloads) {
+        // The page shown before may have been kept over the budget only because it was shown
+        if (mBoundPages.setPage(holder, position / mPagedItems.getPageSize())) dropFarPages(-1);
+        super.onBindViewHolder(holder, position, payloads);
+    }
+
+    @CallSuper
+    @Override
+    public void onViewRecycled(VH holder) {
+        super.onViewRecycled(holder);
+        if (mBoundPages.setPage(holder, -1)) dropFarPages(-1);
+    }
+
+    @Override
+    void onItemBound(int position) {
+        super.onItemBound(position);
+        int pageSize = mPagedItems.getPageSize();
+        int page = position / pageSize;
+        int offsetInPage = position % pageSize;
+        mLastBoundPage = page;
+        loadPage(page);
+
+        if (offsetInPage + mLoadDistance >= pageSize) loadPage(page + 1);
+        if (offsetInPage - mLoadDistance < 0) loadPage(page - 1);
+    }
+
+    private void loadPage(final int page) {
+        if (page < 0 || page >= mPagedItems.getPageCount() || mLoading.get(page) || mPagedItems.isLoaded(page)) return;
+        mLoading.put(page, true);
+        final int generation = mGeneration;
+        final int offset = page * mPagedItems.getPageSize();
+        final int limit = Math.min(mPagedItems.getPageSize(), mPagedItems.size() - offset);
+
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mGeneration) return;
+                final List<T> items;
+
+                try {
+                    items = mSource.loadPage(offset, limit);
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Unable to load page " + page, e);
+                    onPageFailed(page, generation);
+                    return;
+                }
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) return;
+                        mLoading.delete(page);
+                        mPagedItems.setPage(page, items);
+                        mLoaded.put(page, true);
+                        notifyItemRangeChanged(offset, limit);
+                        dropFarPages(page);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the loaded pages farthest from the last bound page until the loaded items fit in the budget. Pages shown
+     * by a bound view holder are kept, so no view ever shows a dropped page and nothing needs to be rebound
+     *
+     * @param keep A page to keep, such as the page just loaded, -1 for none
+     */
+    private void dropFarPages(int keep) {
+        while (mPagedItems.getLoadedCount() > mMaxLoadedItems) {
+            int farthest = -1;
+
+            for (int i = 0; i < mLoaded.size(); i++) {
+                int page = mLoaded.keyAt(i);
+                if (page == keep || mBoundPages.isBound(page)) continue;
+                if (farthest < 0 || Math.abs(page - mLastBoundPage) > Math.abs(farthest - mLastBoundPage)) farthest = page;
+            }
+
+            // All loaded pages are shown, the budget is exceeded until some of them are recycled
+            if (farthest < 0) return;
+            mPagedItems.dropPage(farthest);
+            mLoaded.delete(farthest);
+        }
+    }
+
+    /**
+     * Lets a page that failed to load be loaded again the next time a position near it is bound
+     *
+     * @param page       The page that failed to load
+     * @param generation The generation the page was loaded for
+     */
+    private void onPageFailed(final int page, final int generation) {
+        AdapterExecutors.mainThread().execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation == mGeneration) mLoading.delete(page);
+            }
+        });
+    }
+
+    @NonNull
+    private Executor getExecutor() {
+        return mExecutor != null ? mExecutor : AdapterExecutors.background();
+    }
+
+    @Override
+    public void onDestroy(boolean clearItems) {
+        mGeneration++;
+        mLoading.clear();
+        mLoaded.clear();
+        mBoundPages.clear();
+        super.onDestroy(clearItems);
+    }
+}
@@ -0,0 +1,165 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Hash index of item keys to their position in a list. Positions below {@link #mIndexedUntil} are known to be
+ * correct, mutations only lower that bound instead of rewriting the map. The rest of the list is re-indexed in
+ * segments when a lookup needs it. Keys are expected to be unique within the list.
+ */
+public class PositionIndex<T> {
+
+    /**
+     * Provides the key an item is indexed by
+     */
+    public interface KeyProvider<T> {
+
+        /**
+         * Returns the key for the given item. Keys must be unique within the adapter and implement
+         * {@link Object#equals(Object)} and {@link Object#hashCode()}
+         *
+         * @param item The item to return the key for
+         * @return The key of the item
+         */
+        @Nullable
+        Object getKey(@Nullable T item);
+    }
+
+    private static final int SEGMENT_SIZE = 512;
+
+    private final HashMap<Object, Integer> mPositions = new HashMap<>();
+
+    @Nullable
+    private final KeyProvider<T> mKeyProvider;
+
+    // Every position below this value has been indexed and has not moved since
+    private int mIndexedUntil = 0;
+
+    /**
+     * Creates a {@link PositionIndex}
+     *
+     * @param keyProvider Provider of item keys, null to use the items themselves as keys
+     */
+    public PositionIndex(@Nullable KeyProvider<T> keyProvider) {
+        mKeyProvider = keyProvider;
+    }
+
+    /**
+     * Returns the position of the given item in the list. If not found,
+     * {@link android.support.v7.widget.RecyclerView#NO_POSITION} will be returned
+     *
+     * @param items The list the index is tracking
+     * @param item  The item to search for
+     * @return The position of the item
+     */
+    public int indexOf(@NonNull List<T> items, @Nullable T item) {
+        Object key = keyOf(item);
+        int size = items.size();
+        if (mIndexedUntil > size) mIndexedUntil = size;
+        Integer position = mPositions.get(key);
+
+        if (position != null && position < mIndexedUntil && equal(key, keyOf(items.get(position)))) {
+            return position;
+        }
+
+        // Either the item is past the indexed positions or its entry is stale, index further until it is found
+        while (mIndexedUntil < size) {
+            int start = mIndexedUntil;
+            int end = Math.min(size, start + SEGMENT_SIZE);
+            int found = ItemStore.NO_POSITION;
+
+            for (int i = start; i < end; i++) {
+                Object segmentKey = keyOf(items.get(i));
+                mPositions.put(segmentKey, i);
+                if (found == ItemStore.NO_POSITION && equal(key, segmentKey)) found = i;
+            }
+
+            mIndexedUntil = end;
+            if (found != ItemStore.NO_POSITION) return found;
+        }
+
+        return ItemStore.NO_POSITION;
+    }
+
+    /**
+     * Called after items were inserted into the list
+     *
+     * @param items    The list the index is tracking
+     * @param position The position the items were inserted at
+     * @param count    The number of items inserted
+     */
+    public void onInserted(@NonNull List<T> items, int position, int count) {
+        if (position == mIndexedUntil && position + count == items.size()) {
+            // Appending to a fully indexed list, nothing shifts so the new items can be indexed directly
+            for (int i = position; i < position + count; i++) {
+                mPositions.put(keyOf(items.get(i)), i);
+            }
+
+            mIndexedUntil += count;
+        } else {
+            invalidateFrom(position);
+        }
+    }
+
+    /**
+     * Called before items are removed from the list
+     *
+     * @param items The list the index is tracking
+     * @param start The first position being removed
+     * @param end   The position after the last item being removed
+     */
+    public void onRemoving(@NonNull List<T> items, int start, int end) {
+        for (int i = start; i < end; i++) {
+            mPositions.remove(keyOf(items.get(i)));
+        }
+
+        invalidateFrom(start);
+    }
+
+    /**
+     * Called after the item at the given position was replaced
+     *
+     * @param oldItem  The item that was replaced
+     * @param newItem  The new item
+     * @param position The position of the item
+     */
+    public void onReplaced(@Nullable T oldItem, @Nullable T newItem, int position) {
+        mPositions.remove(keyOf(oldItem));
+        if (position < mIndexedUntil) mPositions.put(keyOf(newItem), position);
+    }
+
+    /**
+     * Called after an item was moved within the list
+     *
+     * @param fromPosition The previous position of the item
+     * @param toPosition   The new position of the item
+     */
+    public void onMoved(int fromPosition, int toPosition) {
+        invalidateFrom(Math.min(fromPosition, toPosition));
+    }
+
+    /**
+     * Discards the entire index, called when the list is cleared or replaced
+     */
+    public void clear() {
+        mPositions.clear();
+        mIndexedUntil = 0;
+    }
+
+    private void invalidateFrom(int position) {
+        if (position < mIndexedUntil) mIndexedUntil = position;
+    }
+
+    @Nullable
+    private Object keyOf(@Nullable T item) {
+        return mKeyProvider != null ? mKeyProvider.getKey(item) : item;
+    }
+
+    private static boolean equal(@Nullable Object first, @Nullable Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+}
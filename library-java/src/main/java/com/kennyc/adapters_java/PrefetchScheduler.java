@@ -0,0 +1,275 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calls a {@link Prefetcher} for the items ahead of the bound positions in the direction the list is scrolling.
+ * Items are requested nearest first, each item is only requested again once it has left the recently requested
+ * items, and requests whose position is no longer ahead of the bound position are dropped if they have not started.
+ * At most a fixed number of requests run at the same time, the others wait in a queue.
+ * <p>
+ * Items are compared with {@link Object#equals(Object)}. All methods must be called from the main thread.
+ */
+final class PrefetchScheduler<T> {
+
+    /**
+     * Provides the items of the adapter to prefetch
+     */
+    interface ItemSource<T> {
+
+        int getItemCount();
+
+        /**
+         * Returns the item to prefetch at the given position, null if there is nothing to prefetch
+         *
+         * @param position The position of the item
+         * @return
+         */
+        @Nullable
+        T getPrefetchItem(int position);
+    }
+
+    @NonNull
+    private final Prefetcher<T> mPrefetcher;
+
+    @NonNull
+    private final ItemSource<T> mSource;
+
+    private final int mDistance;
+
+    private final int mMaxConcurrent;
+
+    // Requests waiting for a free slot, nearest first
+    private final ArrayDeque<Request<T>> mPending = new ArrayDeque<>();
+
+    // Requests given to the executor that have not finished or been cancelled
+    private final List<Request<T>> mSubmitted = new ArrayList<>();
+
+    // Items requested recently, so items near the bound positions are not requested on every bind
+    private final LruCache<T, Boolean> mRequested;
+
+    // Items requested at the positions of the current window, null unless positions only change on reset()
+    @Nullable
+    private final SparseArray<T> mRequestedPositions;
+
+    @Nullable
+    private Executor mExecutor;
+
+    private int mLastPosition = RecyclerView.NO_POSITION;
+
+    private boolean mForward = true;
+
+    // Incremented on reset, used to ignore requests finishing after it
+    private int mGeneration = 0;
+
+    /**
+     * Creates a {@link PrefetchScheduler}
+     *
+     * @param prefetcher    The {@link Prefetcher} to call
+     * @param source        The source of the items to prefetch
+     * @param distance      Number of positions ahead of the bound position to prefetch
+     * @param maxConcurrent Maximum number of items prefetched at the same time
+     */
+    PrefetchScheduler(@NonNull Prefetcher<T> prefetcher, @NonNull ItemSource<T> source, int distance, int maxConcurrent) {
+        this(prefetcher, source, distance, maxConcurrent, false);
+    }
+
+    /**
+     * Creates a {@link PrefetchScheduler}
+     *
+     * @param prefetcher      The {@link Prefetcher} to call
+     * @param source          The source of the items to prefetch
+     * @param distance        Number of positions ahead of the bound position to prefetch
+     * @param maxConcurrent   Maximum number of items prefetched at the same time
+     * @param stablePositions If the item at a position only changes when {@link #reset()} is called. Positions already
+     *                        requested are then skipped without asking the source for their item, for sources whose
+     *                        lookup is expensive
+     */
+    PrefetchScheduler(@NonNull Prefetcher<T> prefetcher, @NonNull ItemSource<T> source, int distance, int maxConcurrent,
+                      boolean stablePositions) {
+        if (distance <= 0) throw new IllegalArgumentException("Distance must be greater than 0");
+        if (maxConcurrent <= 0) throw new IllegalArgumentException("Max concurrent must be greater than 0");
+        mPrefetcher = prefetcher;
+        mSource = source;
+        mDistance = distance;
+        mMaxConcurrent = maxConcurrent;
+        // Large enough to remember the items on screen and the window on either side of them
+        mRequested = new LruCache<>(Math.max(distance * 4, 32));
+        mRequestedPositions = stablePositions ? new SparseArray<T>() : null;
+    }
+
+    /**
+     * Sets the {@link Executor} items are prefetched on. Null will use the shared background executor
+     *
+     * @param executor The executor to prefetch on
+     */
+    void setExecutor(@Nullable Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * Requests the items ahead of the bound position and cancels the requests that are no longer ahead of it
+     *
+     * @param position The position being bound
+     */
+    @MainThread
+    void onBound(int position) {
+        // Rebinding the same position, such as for a change, says nothing about the direction
+        if (mLastPosition != RecyclerView.NO_POSITION && position != mLastPosition) mForward = position > mLastPosition;
+        mLastPosition = position;
+
+        int start;
+        int end;
+
+        if (mForward) {
+            start = position + 1;
+            end = Math.min(position + mDistance, mSource.getItemCount() - 1);
+        } else {
+            start = Math.max(position - mDistance, 0);
+            end = position - 1;
+        }
+
+        cancelOutside(start, end);
+
+        for (int i = 0; i <= end - start; i++) {
+            int itemPosition = mForward ? start + i : end - i;
+            T item = mRequestedPositions != null ? mRequestedPositions.get(itemPosition) : null;
+            if (item != null && mRequested.get(item) != null) continue;
+
+            item = mSource.getPrefetchItem(itemPosition);
+            if (item == null || mRequested.get(item) != null) continue;
+            mRequested.put(item, Boolean.TRUE);
+            if (mRequestedPositions != null) mRequestedPositions.put(itemPosition, item);
+            mPending.add(new Request<>(item, itemPosition));
+        }
+
+        submitPending();
+    }
+
+    /**
+     * Cancels every request and forgets the requested items
+     */
+    @MainThread
+    void reset() {
+        mGeneration++;
+        mPending.clear();
+
+        for (int i = 0; i < mSubmitted.size(); i++) {
+            mSubmitted.get(i).cancel();
+        }
+
+        mSubmitted.clear();
+        mRequested.evictAll();
+        if (mRequestedPositions != null) mRequestedPositions.clear();
+        mLastPosition = RecyclerView.NO_POSITION;
+        mForward = true;
+    }
+
+    private void cancelOutside(int start, int end) {
+        if (mRequestedPositions != null) {
+            for (int i = mRequestedPositions.size() - 1; i >= 0; i--) {
+                int position = mRequestedPositions.keyAt(i);
+                if (position < start || position > end) mRequestedPositions.removeAt(i);
+            }
+        }
+
+        Iterator<Request<T>> iterator = mPending.iterator();
+
+        while (iterator.hasNext()) {
+            Request<T> request = iterator.next();
+
+            if (request.position < start || request.position > end) {
+                iterator.remove();
+                mRequested.remove(request.item);
+            }
+        }
+
+        for (int i = mSubmitted.size() - 1; i >= 0; i--) {
+            Request<T> request = mSubmitted.get(i);
+
+            // Requests that already started run to completion
+            if ((request.position < start || request.position > end) && request.cancel()) {
+                mSubmitted.remove(i);
+                mRequested.remove(request.item);
+            }
+        }
+    }
+
+    private void submitPending() {
+        Executor executor = mExecutor != null ? mExecutor : AdapterExecutors.background();
+
+        while (mSubmitted.size() < mMaxConcurrent && !mPending.isEmpty()) {
+            final Request<T> request = mPending.poll();
+            final int generation = mGeneration;
+            mSubmitted.add(request);
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (request.start()) mPrefetcher.prefetch(request.item);
+                    } finally {
+                        AdapterExecutors.mainThread().execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (generation != mGeneration) return;
+                                mSubmitted.remove(request);
+                                submitPending();
+                            }
+                        });
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class Request<T> {
+        private static final int QUEUED = 0;
+
+        private static final int STARTED = 1;
+
+        private static final int CANCELLED = 2;
+
+        @NonNull
+        final T item;
+
+        final int position;
+
+        private final AtomicInteger mState = new AtomicInteger(QUEUED);
+
+        Request(@NonNull T item, int position) {
+            this.item = item;
+            this.position = position;
+        }
+
+        /**
+         * Marks the request as started, called on the executor
+         *
+         * @return False if the request was cancelled
+         */
+        boolean start() {
+            return mState.compareAndSet(QUEUED, STARTED);
+        }
+
+        /**
+         * Cancels the request if it has not started
+         *
+         * @return If the request was cancelled
+         */
+        boolean cancel() {
+            return mState.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+}
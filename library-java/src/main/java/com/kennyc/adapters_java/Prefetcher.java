@@ -0,0 +1,21 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+/**
+ * Loads data for items that are about to be bound, such as decoding their images or looking up their details, see
+ * {@link BaseRecyclerAdapter#setPrefetcher(Prefetcher, int, int)} and
+ * {@link CursorRecyclerAdapter#setPrefetcher(Prefetcher, int, int)}
+ */
+public interface Prefetcher<T> {
+
+    /**
+     * Loads the data of the item. Called at most once for an item while it stays near the bound positions, results
+     * should be kept in a cache the adapter reads from when binding
+     *
+     * @param item The item that is about to be bound
+     */
+    @WorkerThread
+    void prefetch(@NonNull T item);
+}
@@ -0,0 +1,43 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.v7.util.SortedList;
+
+import java.util.AbstractList;
+
+/**
+ * Read only {@link java.util.List} view of a {@link SortedList}. Lookups use the binary search of the
+ * {@link SortedList}, so {@link #indexOf(Object)} and {@link #contains(Object)} are O(log n). All modifications must
+ * go through the {@link SortedList} itself.
+ */
+final class SortedListView<T> extends AbstractList<T> {
+
+    @NonNull
+    private final SortedList<T> mList;
+
+    SortedListView(@NonNull SortedList<T> list) {
+        mList = list;
+    }
+
+    @Override
+    public T get(int index) {
+        return mList.get(index);
+    }
+
+    @Override
+    public int size() {
+        return mList.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int indexOf(Object o) {
+        return o != null ? mList.indexOf((T) o) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        // Items are unique within a SortedList
+        return indexOf(o);
+    }
+}
@@ -0,0 +1,200 @@
+package com.kennyc.adapters_java;
+
+import android.graphics.Typeface;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Converts items to text and measures it on a background thread ahead of binding. Measuring the text with the same
+ * paint and width as the {@link TextView} fills the platform's shared glyph and word width caches, so the
+ * {@link TextView} measure and layout during the bind are mostly cache hits. Converted text is kept in a bounded cache
+ * that is discarded whenever the text parameters of the {@link TextView} change.
+ */
+final class TextPrecomputer<T> {
+
+    /**
+     * Converts an item to the text that is displayed. Called from a background thread
+     */
+    interface Converter<T> {
+        @NonNull
+        CharSequence convert(@NonNull T item);
+    }
+
+    @NonNull
+    private final Converter<T> mConverter;
+
+    @NonNull
+    private final LruCache<T, CharSequence> mCache;
+
+    // Items queued for conversion, only accessed from the main thread
+    private final Set<T> mPending = new HashSet<>();
+
+    @Nullable
+    private TextParams mParams;
+
+    // Incremented when the text parameters change, used to drop work for previous parameters
+    private volatile int mGeneration = 0;
+
+    // Incremented when an item is invalidated, text converted while an item was invalidated is dropped
+    private volatile int mInvalidations = 0;
+
+    TextPrecomputer(@NonNull Converter<T> converter, int maxSize) {
+        mConverter = converter;
+        mCache = new LruCache<>(maxSize);
+    }
+
+    /**
+     * Returns the precomputed text of the item, null if it has not been computed yet
+     *
+     * @param item The item
+     * @return
+     */
+    @Nullable
+    CharSequence get(@NonNull T item) {
+        return mCache.get(item);
+    }
+
+    /**
+     * Discards the precomputed text of the item, used when an item changes in place
+     *
+     * @param item The item
+     */
+    void invalidate(@NonNull T item) {
+        // Locked with the cache so a worker can not put text converted before the invalidation after it
+        synchronized (mCache) {
+            mInvalidations++;
+            mCache.remove(item);
+        }
+    }
+
+    /**
+     * Discards all precomputed text
+     */
+    @MainThread
+    void clear() {
+        mPending.clear();
+
+        synchronized (mCache) {
+            mGeneration++;
+            mCache.evictAll();
+        }
+    }
+
+    /**
+     * Captures the text parameters of a bound {@link TextView}. If they differ from the previous ones, all
+     * precomputed text is discarded
+     *
+     * @param textView A {@link TextView} the text is displayed in
+     */
+    @MainThread
+    void updateParams(@NonNull TextView textView) {
+        int width = textView.getWidth() - textView.getTotalPaddingLeft() - textView.getTotalPaddingRight();
+        // Not laid out yet, nothing to measure against
+        if (width <= 0) return;
+
+        TextPaint paint = textView.getPaint();
+
+        if (mParams == null || !mParams.matches(paint, width, textView.getIncludeFontPadding())) {
+            clear();
+            mParams = new TextParams(paint, width, textView.getIncludeFontPadding());
+        }
+    }
+
+    /**
+     * Converts and measures the given items on the executor, skipping items that are cached or already queued
+     *
+     * @param items    The items to precompute
+     * @param executor The executor to precompute on
+     */
+    @MainThread
+    void schedule(@NonNull List<T> items, @NonNull Executor executor) {
+        final TextParams params = mParams;
+        if (params == null) return;
+
+        final List<T> toCompute = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item != null && mCache.get(item) == null && mPending.add(item)) toCompute.add(item);
+        }
+
+        if (toCompute.isEmpty()) return;
+        final int generation = mGeneration;
+
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Every task measures with its own paint as paints are not thread safe
+                TextParams workerParams = params.copy();
+
+                for (int i = 0; i < toCompute.size() && generation == mGeneration; i++) {
+                    T item = toCompute.get(i);
+                    int invalidations = mInvalidations;
+                    CharSequence text = mConverter.convert(item);
+                    workerParams.measure(text);
+
+                    // Checked again as the text may have been discarded while it was converted
+                    synchronized (mCache) {
+                        if (generation == mGeneration && invalidations == mInvalidations) mCache.put(item, text);
+                    }
+                }
+
+                AdapterExecutors.mainThread().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mGeneration) mPending.removeAll(toCompute);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * The parameters of the {@link TextView} that affect text measurement
+     */
+    private static class TextParams {
+        @NonNull
+        private final TextPaint mPaint;
+
+        private final int mWidth;
+
+        private final boolean mIncludePad;
+
+        TextParams(@NonNull TextPaint paint, int width, boolean includePad) {
+            // Copied since the TextView's paint is not safe to use off the main thread
+            mPaint = new TextPaint(paint);
+            mWidth = width;
+            mIncludePad = includePad;
+        }
+
+        @NonNull
+        TextParams copy() {
+            return new TextParams(mPaint, mWidth, mIncludePad);
+        }
+
+        boolean matches(@NonNull TextPaint paint, int width, boolean includePad) {
+            Typeface typeface = paint.getTypeface();
+            return mWidth == width && mIncludePad == includePad
+                    && mPaint.getTextSize() == paint.getTextSize()
+                    && mPaint.getTextScaleX() == paint.getTextScaleX()
+                    && mPaint.getFlags() == paint.getFlags()
+                    && (typeface == null ? mPaint.getTypeface() == null : typeface.equals(mPaint.getTypeface()));
+        }
+
+        void measure(@NonNull CharSequence text) {
+            new StaticLayout(text, mPaint, mWidth, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, mIncludePad);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.util.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ListUpdateCallback} that records updates while a batch is open and dispatches the smallest set of range
+ * updates to the target callback when the batch is committed. Updates received while no batch is open are
+ * dispatched immediately.
+ * <p>
+ * Each update is merged with the previously recorded one when possible:
+ * <ul>
+ * <li>Inserts that touch or fall inside a pending insert are combined</li>
+ * <li>Removes that touch a pending remove are combined</li>
+ * <li>Removes that overlap a pending insert cancel the inserted items they cover</li>
+ * <li>Changes inside a pending insert are dropped, adjacent changes with the same payload are combined</li>
+ * </ul>
+ * Moves are never merged. This class is not thread safe and has no dependency on a
+ * {@link android.support.v7.widget.RecyclerView} so it can be used on its own.
+ */
+public class UpdateBatch implements ListUpdateCallback {
+
+    static final int TYPE_INSERT = 1;
+
+    static final int TYPE_REMOVE = 2;
+
+    static final int TYPE_CHANGE = 3;
+
+    static final int TYPE_MOVE = 4;
+
+    @NonNull
+    private final ListUpdateCallback mTarget;
+
+    private final List<Op> mOps = new ArrayList<>();
+
+    private int mDepth = 0;
+
+    /**
+     * Creates an {@link UpdateBatch}
+     *
+     * @param target The callback that receives the merged updates
+     */
+    public UpdateBatch(@NonNull ListUpdateCallback target) {
+        mTarget = target;
+    }
+
+    /**
+     * Opens a batch. Batches may be nested, updates are only dispatched when the outermost batch is committed
+     */
+    public void begin() {
+        mDepth++;
+    }
+
+    /**
+     * Closes the current batch. If it is the outermost batch, all recorded updates are dispatched to the target
+     *
+     * @throws IllegalStateException If no batch is open
+     */
+    public void commit() {
+        if (mDepth <= 0) throw new IllegalStateException("commit() called without a matching begin()");
+        if (--mDepth == 0) flush();
+    }
+
+    /**
+     * Returns if a batch is currently open
+     *
+     * @return
+     */
+    public boolean isBatching() {
+        return mDepth > 0;
+    }
+
+    /**
+     * Returns the number of updates that will be dispatched when the batch is committed
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return mOps.size();
+    }
+
+    @Override
+    public void onInserted(int position, int count) {
+        if (count <= 0) return;
+
+        if (!isBatching()) {
+            mTarget.onInserted(position, count);
+            return;
+        }
+
+        Op last = last();
+
+        if (last != null && last.type == TYPE_INSERT && position >= last.position && position <= last.position + last.count) {
+            last.count += count;
+        } else {
+            mOps.add(new Op(TYPE_INSERT, position, count, null));
+        }
+    }
+
+    @Override
+    public void onRemoved(int position, int count) {
+        if (count <= 0) return;
+
+        if (!isBatching()) {
+            mTarget.onRemoved(position, count);
+            return;
+        }
+
+        recordRemove(position, count);
+    }
+
+    @Override
+    public void onMoved(int fromPosition, int toPosition) {
+        if (fromPosition == toPosition) return;
+
+        if (!isBatching()) {
+            mTarget.onMoved(fromPosition, toPosition);
+            return;
+        }
+
+        mOps.add(new Op(TYPE_MOVE, fromPosition, toPosition, null));
+    }
+
+    @Override
+    public void onChanged(int position, int count, Object payload) {
+        if (count <= 0) return;
+
+        if (!isBatching()) {
+            mTarget.onChanged(position, count, payload);
+            return;
+        }
+
+        Op last = last();
+
+        if (last != null) {
+            // Newly inserted items will be bound from scratch, no need to change them
+            if (last.type == TYPE_INSERT && position >= last.position && position + count <= last.position + last.count) {
+                return;
+            }
+
+            if (last.type == TYPE_CHANGE && samePayload(last.payload, payload)
+                    && position <= last.position + last.count && position + count >= last.position) {
+                int end = Math.max(last.position + last.count, position + count);
+                last.position = Math.min(last.position, position);
+                last.count = end - last.position;
+                return;
+            }
+        }
+
+        mOps.add(new Op(TYPE_CHANGE, position, count, payload));
+    }
+
+    private void recordRemove(int position, int count) {
+        Op last = last();
+
+        if (last == null) {
+            mOps.add(new Op(TYPE_REMOVE, position, count, null));
+            return;
+        }
+
+        if (last.type == TYPE_REMOVE) {
+            if (position == last.position) {
+                // Removing the items that slid into the removed range
+                last.count += count;
+                return;
+            }
+
+            if (position + count == last.position) {
+                last.position = position;
+                last.count += count;
+                return;
+            }
+        } else if (last.type == TYPE_INSERT) {
+            int insertStart = last.position;
+            int insertEnd = last.position + last.count;
+            int removeEnd = position + count;
+            int overlap = Math.min(insertEnd, removeEnd) - Math.max(insertStart, position);
+
+            if (overlap > 0) {
+                // Insert(p, c) followed by Remove(q, n) is the same as removing the original items the range
+                // covered followed by inserting the surviving items, both at min(p, q)
+                int start = Math.min(insertStart, position);
+                int removedBefore = Math.max(0, insertStart - position);
+                int removedAfter = Math.max(0, removeEnd - insertEnd);
+                int remaining = last.count - overlap;
+                mOps.remove(mOps.size() - 1);
+                if (removedBefore + removedAfter > 0) recordRemove(start, removedBefore + removedAfter);
+                if (remaining > 0) mOps.add(new Op(TYPE_INSERT, start, remaining, null));
+                return;
+            }
+        }
+
+        mOps.add(new Op(TYPE_REMOVE, position, count, null));
+    }
+
+    private void flush() {
+        // Copy the operations since the target may trigger new updates while being dispatched
+        List<Op> ops = new ArrayList<>(mOps);
+        mOps.clear();
+
+        for (Op op : ops) {
+            switch (op.type) {
+                case TYPE_INSERT:
+                    mTarget.onInserted(op.position, op.count);
+                    break;
+
+                case TYPE_REMOVE:
+                    mTarget.onRemoved(op.position, op.count);
+                    break;
+
+                case TYPE_CHANGE:
+                    mTarget.onChanged(op.position, op.count, op.payload);
+                    break;
+
+                case TYPE_MOVE:
+                    mTarget.onMoved(op.position, op.count);
+                    break;
+            }
+        }
+    }
+
+    @Nullable
+    private Op last() {
+        return mOps.isEmpty() ? null : mOps.get(mOps.size() - 1);
+    }
+
+    private static boolean samePayload(@Nullable Object first, @Nullable Object second) {
+        return first == null ? second == null : first.equals(second);
+    }
+
+    /**
+     * A recorded update. For moves, position is the from position and count is the to position
+     */
+    private static class Op {
+        final int type;
+
+        int position;
+
+        int count;
+
+        @Nullable
+        final Object payload;
+
+        Op(int type, int position, int count, @Nullable Object payload) {
+            this.type = type;
+            this.position = position;
+            this.count = count;
+            this.payload = payload;
+        }
+    }
+}
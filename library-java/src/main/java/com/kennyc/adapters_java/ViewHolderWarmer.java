@@ -0,0 +1,235 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Creates {@link RecyclerView.ViewHolder}s on a background thread before a list is shown and places them in the
+ * {@link RecyclerView.RecycledViewPool} of the {@link RecyclerView}, so the first layout and scroll do not have to
+ * inflate on the main thread. Holders are created through {@link RecyclerView.Adapter#createViewHolder(android.view.ViewGroup, int)},
+ * the adapters of this library inflate with a clone of their {@link LayoutInflater} when called off the main thread.
+ * <p>
+ * Every holder attached to the {@link RecyclerView} while the warmer is running is counted as either consumed from
+ * the warm-up or created on demand, see {@link #getConsumedCount()} and {@link #getCreatedOnDemandCount()}.
+ */
+public class ViewHolderWarmer {
+
+    private static final String TAG = ViewHolderWarmer.class.getSimpleName();
+
+    // The default limit of a pool per view type
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    // Limits set through setMaxRecycledViews, the pool does not expose its own
+    private static final Map<RecyclerView.RecycledViewPool, SparseIntArray> sPoolLimits = new WeakHashMap<>();
+
+    @NonNull
+    private final RecyclerView mRecyclerView;
+
+    @NonNull
+    private final RecyclerView.Adapter<?> mAdapter;
+
+    // Number of holders to create per view type
+    private final SparseIntArray mCounts = new SparseIntArray();
+
+    // Holders created by the warmer that have not been attached yet
+    private final Set<RecyclerView.ViewHolder> mWarmHolders = Collections.newSetFromMap(new WeakHashMap<RecyclerView.ViewHolder, Boolean>());
+
+    // Every holder that has been attached, used to only count a holder once
+    private final Map<RecyclerView.ViewHolder, Boolean> mSeenHolders = new WeakHashMap<>();
+
+    private final RecyclerView.OnChildAttachStateChangeListener mAttachListener = new RecyclerView.OnChildAttachStateChangeListener() {
+        @Override
+        public void onChildViewAttachedToWindow(View view) {
+            RecyclerView.ViewHolder holder = mRecyclerView.getChildViewHolder(view);
+            if (holder == null || mSeenHolders.put(holder, Boolean.TRUE) != null) return;
+
+            if (mWarmHolders.remove(holder)) {
+                mConsumed++;
+            } else {
+                mCreatedOnDemand++;
+            }
+        }
+
+        @Override
+        public void onChildViewDetachedFromWindow(View view) {
+            // Not needed
+        }
+    };
+
+    private volatile boolean mCancelled = false;
+
+    private boolean mStarted = false;
+
+    private int mCreated = 0;
+
+    private int mConsumed = 0;
+
+    private int mCreatedOnDemand = 0;
+
+    /**
+     * Creates a {@link ViewHolderWarmer}
+     *
+     * @param recyclerView The {@link RecyclerView} whose pool should be filled
+     * @param adapter      The adapter that will be set on the {@link RecyclerView}
+     */
+    public ViewHolderWarmer(@NonNull RecyclerView recyclerView, @NonNull RecyclerView.Adapter<?> adapter) {
+        mRecyclerView = recyclerView;
+        mAdapter = adapter;
+    }
+
+    /**
+     * Sets the maximum number of holders the pool keeps for the given view type. {@link RecyclerView.RecycledViewPool}
+     * does not expose its limits, so limits set on a pool that a warmer fills should be set through this method,
+     * a warmer never lowers them
+     *
+     * @param pool     The pool to set the limit of
+     * @param viewType The view type to set the limit of
+     * @param max      The maximum number of holders to keep
+     */
+    @MainThread
+    public static void setMaxRecycledViews(@NonNull RecyclerView.RecycledViewPool pool, int viewType, int max) {
+        SparseIntArray limits = sPoolLimits.get(pool);
+
+        if (limits == null) {
+            limits = new SparseIntArray();
+            sPoolLimits.put(pool, limits);
+        }
+
+        limits.put(viewType, max);
+        pool.setMaxRecycledViews(viewType, max);
+    }
+
+    /**
+     * Sets the number of holders to create for the given view type
+     *
+     * @param viewType The view type to create holders for
+     * @param count    The number of holders to create
+     * @return This {@link ViewHolderWarmer}
+     */
+    @NonNull
+    public ViewHolderWarmer warm(int viewType, int count) {
+        mCounts.put(viewType, count);
+        return this;
+    }
+
+    /**
+     * Starts creating holders on the shared background executor
+     */
+    @MainThread
+    public void start() {
+        start(null);
+    }
+
+    /**
+     * Starts creating holders on the given executor. Each holder is placed in the pool as soon as it is created
+     *
+     * @param executor The executor to create holders on, null will use the shared background executor
+     */
+    @MainThread
+    public void start(@Nullable Executor executor) {
+        if (mStarted) throw new IllegalStateException("Warmer has already been started");
+        mStarted = true;
+        mRecyclerView.addOnChildAttachStateChangeListener(mAttachListener);
+        final RecyclerView.RecycledViewPool pool = mRecyclerView.getRecycledViewPool();
+        final SparseIntArray counts = mCounts.clone();
+
+        for (int i = 0; i < counts.size(); i++) {
+            int viewType = counts.keyAt(i);
+            SparseIntArray limits = sPoolLimits.get(pool);
+            int limit = limits != null ? limits.get(viewType, DEFAULT_MAX_RECYCLED_VIEWS) : DEFAULT_MAX_RECYCLED_VIEWS;
+            // Only raised so the warmed holders fit, a higher limit is kept
+            if (counts.valueAt(i) > limit) setMaxRecycledViews(pool, viewType, counts.valueAt(i));
+        }
+
+        (executor != null ? executor : AdapterExecutors.background()).execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < counts.size() && !mCancelled; i++) {
+                    int viewType = counts.keyAt(i);
+
+                    for (int j = 0; j < counts.valueAt(i) && !mCancelled; j++) {
+                        final RecyclerView.ViewHolder holder;
+
+                        try {
+                            holder = mAdapter.createViewHolder(mRecyclerView, viewType);
+                        } catch (RuntimeException e) {
+                            // Some views can only be created on the main thread, leave them to be created on demand
+                            Log.w(TAG, "Unable to create view type " + viewType + " in the background", e);
+                            break;
+                        }
+
+                        AdapterExecutors.mainThread().execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                if (mCancelled) return;
+                                mCreated++;
+                                mWarmHolders.add(holder);
+                                pool.putRecycledView(holder);
+                            }
+                        });
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops creating holders and stops counting attached holders. Holders already in the pool are kept
+     */
+    @MainThread
+    public void stop() {
+        mCancelled = true;
+        mRecyclerView.removeOnChildAttachStateChangeListener(mAttachListener);
+    }
+
+    /**
+     * Returns the number of holders created by the warmer and placed in the pool
+     *
+     * @return
+     */
+    public int getCreatedCount() {
+        return mCreated;
+    }
+
+    /**
+     * Returns the number of holders created by the warmer that have been attached to the {@link RecyclerView}
+     *
+     * @return
+     */
+    public int getConsumedCount() {
+        return mConsumed;
+    }
+
+    /**
+     * Returns the number of holders attached to the {@link RecyclerView} that were not created by the warmer
+     *
+     * @return
+     */
+    public int getCreatedOnDemandCount() {
+        return mCreatedOnDemand;
+    }
+
+    /**
+     * Returns the inflater to use on the calling thread. {@link LayoutInflater} is not thread safe, so a clone is
+     * returned when called off the main thread
+     *
+     * @param inflater The inflater used on the main thread
+     * @return
+     */
+    @NonNull
+    static LayoutInflater inflaterForCurrentThread(@NonNull LayoutInflater inflater) {
+        return AdapterExecutors.isMainThread() ? inflater : inflater.cloneInContext(inflater.getContext());
+    }
+}
@@ -0,0 +1,143 @@
+package com.kennyc.adapters_java;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Maps item classes to dense view types and dispatches creating and binding to the {@link ItemViewDelegate} of each
+ * view type. A class without a delegate of its own resolves to the delegate of its nearest superclass, then of its
+ * interfaces, once and is cached. Delegates are kept in an array indexed by view type, so dispatching is an array
+ * lookup however many view types there are. Not thread safe, items must not be resolved while registering.
+ */
+final class ViewTypeRegistry<T, VH extends RecyclerView.ViewHolder> {
+
+    // View type of every class resolved so far, including the registered ones
+    private final HashMap<Class<?>, Integer> mTypes = new HashMap<>();
+
+    // Registered class of each view type
+    private Class<?>[] mClasses = new Class<?>[8];
+
+    private ItemViewDelegate[] mDelegates = new ItemViewDelegate[8];
+
+    private int mCount = 0;
+
+    // Lists are often runs of items of the same class, the last resolved class skips the map lookup
+    @Nullable
+    private Class<?> mLastClass;
+
+    private int mLastType;
+
+    /**
+     * Registers the delegate of the given class, replacing the previous delegate of the class if any
+     *
+     * @param itemClass The class of the items
+     * @param delegate  The delegate of the items
+     * @return The view type of the class
+     */
+    <I extends T> int register(@NonNull Class<I> itemClass, @NonNull ItemViewDelegate<I, ? extends VH> delegate) {
+        int type = 0;
+
+        while (type < mCount && mClasses[type] != itemClass) {
+            type++;
+        }
+
+        if (type == mCount) {
+            if (mCount == mClasses.length) {
+                mClasses = Arrays.copyOf(mClasses, mCount * 2);
+                mDelegates = Arrays.copyOf(mDelegates, mCount * 2);
+            }
+
+            mClasses[type] = itemClass;
+            mCount++;
+        }
+
+        mDelegates[type] = delegate;
+
+        // Classes resolved through a superclass may now have a nearer delegate
+        mTypes.clear();
+        mLastClass = null;
+
+        for (int i = 0; i < mCount; i++) {
+            mTypes.put(mClasses[i], i);
+        }
+
+        return type;
+    }
+
+    int getViewType(@Nullable T item) {
+        if (item == null) throw new IllegalArgumentException("Null items have no view type");
+        Class<?> itemClass = item.getClass();
+        if (itemClass == mLastClass) return mLastType;
+
+        Integer type = mTypes.get(itemClass);
+
+        if (type == null) {
+            type = resolve(itemClass);
+            mTypes.put(itemClass, type);
+        }
+
+        mLastClass = itemClass;
+        mLastType = type;
+        return type;
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    VH create(@NonNull LayoutInflater inflater, @NonNull ViewGroup parent, int viewType) {
+        return (VH) getDelegate(viewType).onCreateViewHolder(inflater, parent);
+    }
+
+    @SuppressWarnings("unchecked")
+    void bind(@NonNull VH holder, @NonNull T item, int position) {
+        // The holder was created by the delegate of its view type
+        getDelegate(holder.getItemViewType()).onBindViewHolder(holder, item, position);
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean bindPayloads(@NonNull VH holder, @NonNull T item, int position, @NonNull List<Object> payloads) {
+        return getDelegate(holder.getItemViewType()).onBindPayloads(holder, item, position, payloads);
+    }
+
+    @NonNull
+    private ItemViewDelegate getDelegate(int viewType) {
+        if (viewType < 0 || viewType >= mCount) throw new IllegalArgumentException("Unknown view type " + viewType);
+        return mDelegates[viewType];
+    }
+
+    private int resolve(@NonNull Class<?> itemClass) {
+        for (Class<?> current = itemClass.getSuperclass(); current != null; current = current.getSuperclass()) {
+            Integer type = mTypes.get(current);
+            if (type != null) return type;
+        }
+
+        for (Class<?> current = itemClass; current != null; current = current.getSuperclass()) {
+            int type = resolveInterfaces(current);
+            if (type >= 0) return type;
+        }
+
+        throw new IllegalArgumentException("No ItemViewDelegate registered for " + itemClass.getName());
+    }
+
+    private int resolveInterfaces(@NonNull Class<?> type) {
+        Class<?>[] interfaces = type.getInterfaces();
+
+        for (Class<?> implemented : interfaces) {
+            Integer found = mTypes.get(implemented);
+            if (found != null) return found;
+        }
+
+        for (Class<?> implemented : interfaces) {
+            int found = resolveInterfaces(implemented);
+            if (found >= 0) return found;
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.database.CharArrayBuffer;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.PopupMenu;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Create and bind throughput of the adapters, run with ./gradlew :library-java:testDebugUnitTest -PrunBenchmarks
+ * <p>
+ * Numbers are only comparable between runs on the same machine, they are meant to catch regressions in the create and
+ * bind paths such as new allocations per bind.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class AdapterBindBenchmark {
+
+    private static final int ITEM_COUNT = 1_000;
+
+    private static final int CREATE_ITERATIONS = 2_000;
+
+    private static final int BIND_ITERATIONS = 50_000;
+
+    private Context mContext;
+
+    private RecyclerView mParent;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mParent = new RecyclerView(mContext);
+        mParent.setLayoutManager(new LinearLayoutManager(mContext));
+    }
+
+    @Test
+    public void arrayRecyclerAdapter() {
+        List<Long> items = new ArrayList<>(ITEM_COUNT);
+
+        for (long i = 0; i < ITEM_COUNT; i++) {
+            items.add(i);
+        }
+
+        ArrayRecyclerAdapter<Long> adapter = new ArrayRecyclerAdapter<>(mContext, android.R.layout.simple_list_item_1, items, null);
+        measure("ArrayRecyclerAdapter", adapter);
+    }
+
+    @Test
+    public void menuRecyclerAdapter() {
+        Menu menu = new PopupMenu(mContext, mParent).getMenu();
+        List<MenuItem> items = new ArrayList<>(ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(menu.add(Menu.NONE, i, i, "Item " + i));
+        }
+
+        measure("MenuRecyclerAdapter", new MenuRecyclerAdapter(mContext, items, null));
+    }
+
+    @Test
+    public void cursorRecyclerAdapter() {
+        MatrixCursor cursor = new MatrixCursor(new String[]{"_id", "title"}, ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            cursor.addRow(new Object[]{i, "Row " + i});
+        }
+
+        measure("CursorRecyclerAdapter", new SampleCursorAdapter(mContext, cursor));
+    }
+
+    private <VH extends RecyclerView.ViewHolder> void measure(String name, final RecyclerView.Adapter<VH> adapter) {
+        BindMeter.measure(name + ".create", CREATE_ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.createViewHolder(mParent, 0);
+            }
+        });
+
+        final VH holder = adapter.createViewHolder(mParent, 0);
+        final int count = adapter.getItemCount();
+
+        BindMeter.measure(name + ".bind", BIND_ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.bindViewHolder(holder, iteration % count);
+            }
+        });
+    }
+
+    private static class SampleCursorAdapter extends CursorRecyclerAdapter<SampleCursorAdapter.TitleHolder> {
+        private static final int COLUMN_TITLE = 0;
+
+        private final CursorProjection mProjection;
+
+        SampleCursorAdapter(@NonNull Context context, @NonNull Cursor cursor) {
+            super(context, cursor, true);
+            mProjection = createProjection("title");
+        }
+
+        @Override
+        public TitleHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new TitleHolder(inflateView(android.R.layout.simple_list_item_1, parent));
+        }
+
+        @Override
+        public void onBindViewHolder(TitleHolder holder, int position) {
+            if (!moveToPosition(position)) return;
+            // The text view keeps the array, so every holder copies the title into its own buffer
+            CharArrayBuffer title = holder.title;
+            mProjection.getChars(COLUMN_TITLE, title);
+            holder.textView.setText(title.data, 0, title.sizeCopied);
+        }
+
+        static class TitleHolder extends ArrayRecyclerAdapter.SimpleTextViewHolder {
+            final CharArrayBuffer title = new CharArrayBuffer(64);
+
+            TitleHolder(@NonNull View view) {
+                super(view, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.kennyc.adapters_java;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List operations of {@link ArrayRecyclerAdapter}, which keeps its own list instead of the ItemStore measured by the
+ * JMH AdapterListBenchmark. Run with ./gradlew :library-java:testDebugUnitTest -PrunBenchmarks
+ * <p>
+ * Every operation is measured on a plain adapter, with stable ids and with a filter displaying half of the items. The
+ * mutating operations undo their change in the same iteration, so the list keeps its original size.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class ArrayAdapterListBenchmark {
+
+    private static final int ITEM_COUNT = 10_000;
+
+    private static final int RANGE = 100;
+
+    private static final int ITERATIONS = 5_000;
+
+    private static final long FILTER_TIMEOUT_MS = 10_000;
+
+    private static final String EVEN = "even";
+
+    // Matches the even items for the query "even"
+    private static final ItemMatcher<Long> EVEN_MATCHER = new ItemMatcher<Long>() {
+        @Override
+        public boolean matches(@NonNull Long item, @NonNull String query) {
+            return item % 2 == 0;
+        }
+    };
+
+    private Context mContext;
+
+    private List<Long> mItems;
+
+    // Even items past the original ones, shown while filtered too
+    private List<Long> mRange;
+
+    @Before
+    public void setUp() {
+        mContext = RuntimeEnvironment.application;
+        mItems = createItems(0, ITEM_COUNT, 1);
+        mRange = createItems(ITEM_COUNT, RANGE, 2);
+    }
+
+    @Test
+    public void plain() {
+        measure("ArrayRecyclerAdapter", createAdapter());
+    }
+
+    @Test
+    public void stableIds() {
+        ArrayRecyclerAdapter<Long> adapter = createAdapter();
+
+        adapter.setItemIdProvider(new ItemIdProvider<Long>() {
+            @Override
+            public long getItemId(Long item) {
+                return item;
+            }
+        });
+
+        measure("ArrayRecyclerAdapter.ids", adapter);
+    }
+
+    @Test
+    public void filtered() throws InterruptedException {
+        ArrayRecyclerAdapter<Long> adapter = createAdapter();
+        adapter.setItemMatcher(EVEN_MATCHER);
+        adapter.filter(EVEN);
+        awaitItemCount(adapter, ITEM_COUNT / 2);
+        measure("ArrayRecyclerAdapter.filtered", adapter);
+    }
+
+    private void measure(String name, final ArrayRecyclerAdapter<Long> adapter) {
+        final int count = adapter.getItemCount();
+        final Long added = (long) ITEM_COUNT * 2;
+
+        BindMeter.measure(name + ".addAndRemoveLast", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.addItem(added);
+                adapter.removeItem(count);
+            }
+        });
+
+        BindMeter.measure(name + ".addAndRemoveAtHead", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.addItem(added, 0);
+                adapter.removeItem(0);
+            }
+        });
+
+        BindMeter.measure(name + ".addAndRemoveItemsAtMiddle", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                int position = count / 2;
+                adapter.addItems(mRange, position);
+                adapter.removeItems(position, position + RANGE);
+            }
+        });
+
+        BindMeter.measure(name + ".updateItemAtMiddle", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                int position = count / 2;
+                adapter.updateItem(position, adapter.getItem(position));
+            }
+        });
+
+        final Long last = adapter.getItem(count - 1);
+
+        BindMeter.measure(name + ".indexOfLast", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.indexOf(last);
+            }
+        });
+
+        BindMeter.measure(name + ".retainItems", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.retainItems();
+            }
+        });
+
+        BindMeter.measure(name + ".clearAndRefill", ITERATIONS, new BindMeter.Operation() {
+            @Override
+            public void run(int iteration) {
+                adapter.clear();
+                adapter.addItems(mItems);
+            }
+        });
+
+        if (adapter.getItemCount() != count) throw new AssertionError(name + " did not keep its item count");
+    }
+
+    @NonNull
+    private ArrayRecyclerAdapter<Long> createAdapter() {
+        return new ArrayRecyclerAdapter<>(mContext, android.R.layout.simple_list_item_1, mItems, null);
+    }
+
+    /**
+     * Runs the main thread tasks until the filter published its result
+     */
+    private static void awaitItemCount(ArrayRecyclerAdapter<?> adapter, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + FILTER_TIMEOUT_MS;
+
+        while (adapter.getItemCount() != count) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("Filter was not applied");
+            Thread.sleep(1);
+            ShadowLooper.runUiThreadTasks();
+        }
+    }
+
+    @NonNull
+    private static List<Long> createItems(long start, int count, int step) {
+        List<Long> items = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            items.add(start + i * step);
+        }
+
+        return items;
+    }
+}
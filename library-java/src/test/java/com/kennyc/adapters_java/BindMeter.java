@@ -0,0 +1,61 @@
+package com.kennyc.adapters_java;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Measures the average time and allocations of an operation on the calling thread
+ */
+final class BindMeter {
+
+    interface Operation {
+        void run(int iteration);
+    }
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+
+    private BindMeter() {
+        // No instances
+    }
+
+    /**
+     * Runs the operation for the given number of iterations after a warm-up and prints the results
+     *
+     * @param name       Name of the measurement
+     * @param iterations Number of measured iterations
+     * @param operation  The operation to measure
+     * @return Average bytes allocated per operation, -1 if allocations can not be measured on this JVM
+     */
+    static long measure(String name, int iterations, Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run(i);
+        }
+
+        long startBytes = allocatedBytes();
+        long startTime = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            operation.run(i);
+        }
+
+        long elapsed = System.nanoTime() - startTime;
+        long allocated = allocatedBytes() - startBytes;
+        long bytesPerOp = startBytes >= 0 ? allocated / iterations : -1;
+        System.out.println(String.format(Locale.US, "%-40s %,12d ns/op %,10d B/op", name, elapsed / iterations, bytesPerOp));
+        return bytesPerOp;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) bean;
+            if (hotspotBean.isThreadAllocatedMemorySupported()) {
+                return hotspotBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+
+        return -1;
+    }
+}
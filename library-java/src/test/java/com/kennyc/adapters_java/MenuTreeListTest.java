@@ -0,0 +1,205 @@
+package com.kennyc.adapters_java;
+
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.SubMenu;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Expands and collapses nested submenus of a {@link MenuTreeList} and checks every position against a list flattened
+ * from the menu, so the Fenwick trees of every level are checked after each update
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class MenuTreeListTest {
+
+    private static final int ROOT_ITEMS = 13;
+
+    private Menu mMenu;
+
+    private MenuTreeList mTree;
+
+    // Items whose submenu is expanded in the reference model
+    private Set<MenuItem> mExpanded;
+
+    @Before
+    public void setUp() {
+        mMenu = new MenuRecyclerAdapter.RecyclerMenu(RuntimeEnvironment.application);
+
+        for (int i = 0; i < ROOT_ITEMS; i++) {
+            if (i == 3) {
+                SubMenu sub = mMenu.addSubMenu("r3");
+
+                for (int j = 0; j < 6; j++) {
+                    if (j == 2 || j == 5) {
+                        SubMenu nested = sub.addSubMenu("s" + j);
+                        for (int k = 0; k < 3; k++) nested.add("s" + j + "-" + k);
+                    } else {
+                        sub.add("s" + j);
+                    }
+                }
+            } else if (i == ROOT_ITEMS - 1) {
+                mMenu.addSubMenu("r" + i).add("u0");
+            } else {
+                mMenu.add("r" + i);
+            }
+        }
+
+        mTree = new MenuTreeList(mMenu);
+        mExpanded = Collections.newSetFromMap(new IdentityHashMap<MenuItem, Boolean>());
+    }
+
+    @Test
+    public void mapsRootPositions() {
+        assertRows();
+    }
+
+    @Test
+    public void mapsPositionsAcrossNestedExpand() {
+        assertEquals(6, expand("r3"));
+        assertEquals(3, expand("s2"));
+        assertEquals(3, expand("s5"));
+        assertEquals(1, expand("r12"));
+    }
+
+    @Test
+    public void mapsPositionsAcrossNestedCollapse() {
+        expand("r3");
+        expand("s2");
+        expand("s5");
+        expand("r12");
+
+        assertEquals(3, collapse("s2"));
+        // Collapsing a submenu also removes the rows of its expanded nested submenus
+        assertEquals(9, collapse("r3"));
+        assertEquals(1, collapse("r12"));
+        assertEquals(ROOT_ITEMS, mTree.size());
+    }
+
+    @Test
+    public void expandsNestedCollapsedAgain() {
+        expand("r3");
+        expand("s5");
+        collapse("r3");
+
+        assertEquals(6, expand("r3"));
+        assertFalse(mTree.isExpanded(positionOf("s5")));
+        assertEquals(3, expand("s5"));
+    }
+
+    @Test
+    public void ignoresItemsWithoutSubMenu() {
+        expand("r3");
+        assertEquals(0, expand("s0"));
+        assertEquals(0, collapse("s0"));
+        assertEquals(0, expand("r3"));
+        assertEquals(0, collapse("r0"));
+    }
+
+    @Test
+    public void throwsOutsideRows() {
+        expand("r3");
+
+        try {
+            mTree.get(mTree.size());
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+
+        try {
+            mTree.get(-1);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void clearsRows() {
+        expand("r3");
+        mTree.clear();
+        mExpanded.clear();
+        assertTrue(mTree.isEmpty());
+    }
+
+    private int expand(String title) {
+        int position = positionOf(title);
+        int count = mTree.expand(position);
+        if (count > 0) mExpanded.add(mTree.get(position));
+        assertRows();
+        return count;
+    }
+
+    private int collapse(String title) {
+        int position = positionOf(title);
+        int count = mTree.collapse(position);
+        if (count > 0) removeExpanded(mTree.get(position));
+        assertRows();
+        return count;
+    }
+
+    private void removeExpanded(MenuItem item) {
+        if (!mExpanded.remove(item)) return;
+        SubMenu sub = item.getSubMenu();
+
+        for (int i = 0; i < sub.size(); i++) {
+            removeExpanded(sub.getItem(i));
+        }
+    }
+
+    private int positionOf(String title) {
+        List<MenuItem> rows = new ArrayList<>();
+        flatten(mMenu, 0, rows, new ArrayList<Integer>());
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (title.equals(rows.get(i).getTitle().toString())) return i;
+        }
+
+        throw new AssertionError("No row " + title);
+    }
+
+    private void assertRows() {
+        List<MenuItem> rows = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        flatten(mMenu, 0, rows, depths);
+        assertEquals(rows.size(), mTree.size());
+
+        // Walked backwards as well, so no position relies on the one located before it
+        for (int i = 0; i < rows.size(); i++) {
+            assertRow(rows, depths, i);
+            assertRow(rows, depths, rows.size() - 1 - i);
+        }
+    }
+
+    private void assertRow(List<MenuItem> rows, List<Integer> depths, int position) {
+        assertSame("Row " + position, rows.get(position), mTree.get(position));
+        assertEquals("Depth of row " + position, (int) depths.get(position), mTree.getDepth(position));
+        assertEquals("Expansion of row " + position, mExpanded.contains(rows.get(position)), mTree.isExpanded(position));
+    }
+
+    private void flatten(Menu menu, int depth, List<MenuItem> rows, List<Integer> depths) {
+        for (int i = 0; i < menu.size(); i++) {
+            MenuItem item = menu.getItem(i);
+            rows.add(item);
+            depths.add(depth);
+            if (mExpanded.contains(item)) flatten(item.getSubMenu(), depth + 1, rows, depths);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.kennyc.adapters_java;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 25)
+public class PagedCursorRecyclerAdapterTest {
+
+    private static final int ROW_COUNT = 50;
+
+    private static final int PAGE_SIZE = 10;
+
+    private QueuedExecutor mExecutor;
+
+    private RowQuery mQuery;
+
+    @Before
+    public void setUp() {
+        mExecutor = new QueuedExecutor();
+        mQuery = new RowQuery(true);
+    }
+
+    @Test
+    public void bindsPlaceholderUntilPageLoads() {
+        TestAdapter adapter = createAdapter(4);
+        Holder holder = new Holder();
+
+        adapter.onBindViewHolder(holder, 3);
+        assertNull(holder.key);
+
+        mExecutor.runAll();
+        adapter.onBindViewHolder(holder, 3);
+        assertEquals(Long.valueOf(key(3)), holder.key);
+    }
+
+    @Test
+    public void keepsBoundPagesOverMaxPages() {
+        TestAdapter adapter = createAdapter(2);
+        List<Holder> holders = new ArrayList<>();
+
+        // Rows of every page are on screen at once, more than the 2 pages the adapter may keep
+        for (int position = 0; position < ROW_COUNT; position += PAGE_SIZE) {
+            Holder holder = new Holder();
+            holders.add(holder);
+            adapter.onBindViewHolder(holder, position);
+        }
+
+        mExecutor.runAll();
+        int queries = mQuery.cursors.size();
+
+        // Rebinding the visible rows, as a range change would, must neither close their pages nor load them again
+        for (int pass = 0; pass < 3; pass++) {
+            for (int i = 0; i < holders.size(); i++) {
+                adapter.onBindViewHolder(holders.get(i), i * PAGE_SIZE);
+                assertEquals(Long.valueOf(key(i * PAGE_SIZE)), holders.get(i).key);
+            }
+
+            mExecutor.runAll();
+        }
+
+        assertEquals(queries, mQuery.cursors.size());
+        assertEquals(0, mQuery.closedCount());
+
+        for (Holder holder : holders) {
+            adapter.onViewRecycled(holder);
+        }
+
+        // Once nothing is bound the pages over the maximum are closed
+        assertEquals(mQuery.cursors.size() - 2, mQuery.closedCount());
+    }
+
+    @Test
+    public void closesPagesNoLongerBound() {
+        TestAdapter adapter = createAdapter(2);
+        Holder holder = new Holder();
+
+        // Scrolls a single row through every page
+        for (int position = 0; position < ROW_COUNT; position++) {
+            adapter.onBindViewHolder(holder, position);
+            mExecutor.runAll();
+            assertFalse(mQuery.openCount() > 3);
+        }
+    }
+
+    @Test
+    public void queriesJumpsByKey() {
+        TestAdapter adapter = createAdapter(2);
+        adapter.onBindViewHolder(new Holder(), 45);
+        mExecutor.runAll();
+
+        assertEquals(1, mQuery.afterKeys.size());
+        assertEquals(Long.valueOf(key(39)), mQuery.afterKeys.get(0));
+    }
+
+    @Test
+    public void queriesJumpsByOffsetWithoutPageKeys() {
+        mQuery = new RowQuery(false);
+        TestAdapter adapter = createAdapter(2);
+        adapter.onBindViewHolder(new Holder(), 45);
+        mExecutor.runAll();
+
+        assertEquals(1, mQuery.afterKeys.size());
+        assertNull(mQuery.afterKeys.get(0));
+
+        // Pages following a loaded page are queried by its last key
+        adapter.onBindViewHolder(new Holder(), 0);
+        mExecutor.runAll();
+        adapter.onBindViewHolder(new Holder(), PAGE_SIZE);
+        mExecutor.runAll();
+        assertEquals(Long.valueOf(key(PAGE_SIZE - 1)), mQuery.afterKeys.get(mQuery.afterKeys.size() - 1));
+    }
+
+    private TestAdapter createAdapter(int maxPages) {
+        TestAdapter adapter = new TestAdapter(mQuery, maxPages);
+        adapter.setExecutor(mExecutor);
+        // Reloads the count on the test executor, the constructor loaded it on the shared one
+        adapter.refresh();
+        mExecutor.runAll();
+        assertEquals(ROW_COUNT, adapter.getItemCount());
+        return adapter;
+    }
+
+    private static long key(int position) {
+        return position * 10 + 5;
+    }
+
+    private static class QueuedExecutor implements Executor {
+        private final List<Runnable> mQueue = new ArrayList<>();
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mQueue.add(command);
+        }
+
+        void runAll() {
+            while (!mQueue.isEmpty()) {
+                mQueue.remove(0).run();
+            }
+        }
+    }
+
+    private static class RowQuery implements PagedCursorRecyclerAdapter.PageQuery {
+        private final boolean mPageKeys;
+
+        final List<Cursor> cursors = new ArrayList<>();
+
+        final List<Long> afterKeys = new ArrayList<>();
+
+        RowQuery(boolean pageKeys) {
+            mPageKeys = pageKeys;
+        }
+
+        @Override
+        public int getCount() {
+            return ROW_COUNT;
+        }
+
+        @Nullable
+        @Override
+        public long[] getPageEndKeys(int pageSize) {
+            if (!mPageKeys) return null;
+            long[] keys = new long[(ROW_COUNT + pageSize - 1) / pageSize];
+
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key(Math.min((i + 1) * pageSize, ROW_COUNT) - 1);
+            }
+
+            return keys;
+        }
+
+        @NonNull
+        @Override
+        public String getKeyColumn() {
+            return "key";
+        }
+
+        @NonNull
+        @Override
+        public Cursor queryPage(int offset, int limit, @Nullable Long afterKey) {
+            int start = offset;
+
+            if (afterKey != null) {
+                start = 0;
+                while (start < ROW_COUNT && key(start) <= afterKey) start++;
+            }
+
+            MatrixCursor cursor = new MatrixCursor(new String[]{"key"});
+
+            for (int i = start; i < Math.min(start + limit, ROW_COUNT); i++) {
+                cursor.addRow(new Object[]{key(i)});
+            }
+
+            afterKeys.add(afterKey);
+            cursors.add(cursor);
+            return cursor;
+        }
+
+        int closedCount() {
+            int closed = 0;
+
+            for (Cursor cursor : cursors) {
+                if (cursor.isClosed()) closed++;
+            }
+
+            return closed;
+        }
+
+        int openCount() {
+            return cursors.size() - closedCount();
+        }
+    }
+
+    private static class Holder extends RecyclerView.ViewHolder {
+        @Nullable
+        Long key;
+
+        Holder() {
+            super(new View(RuntimeEnvironment.application));
+        }
+    }
+
+    private static class TestAdapter extends PagedCursorRecyclerAdapter<Holder> {
+
+        TestAdapter(@NonNull PageQuery query, int maxPages) {
+            super(RuntimeEnvironment.application, query, PAGE_SIZE, maxPages);
+        }
+
+        @Override
+        public Holder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new Holder();
+        }
+
+        @Override
+        protected void onBindViewHolder(@NonNull Holder holder, @NonNull Cursor cursor, int position) {
+            holder.key = cursor.getLong(0);
+        }
+
+        @Override
+        protected void onBindPlaceholder(@NonNull Holder holder, int position) {
+            holder.key = null;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.kennyc.adapters_java;
+
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Replays the updates dispatched by an {@link UpdateBatch} against a list and checks that it ends up the same as the
+ * list the original updates were applied to, and that the updates were merged
+ */
+public class UpdateBatchTest {
+
+    private static final int ITEM_COUNT = 20;
+
+    private ListModel mExpected;
+
+    private ListModel mActual;
+
+    private UpdateBatch mBatch;
+
+    @Before
+    public void setUp() {
+        mExpected = new ListModel(ITEM_COUNT);
+        mActual = new ListModel(ITEM_COUNT);
+        mBatch = new UpdateBatch(mActual);
+    }
+
+    @Test
+    public void dispatchesImmediatelyWithoutBatch() {
+        insert(2, 3);
+        remove(0, 1);
+        assertEquals(2, mActual.dispatched);
+        assertReplayed();
+    }
+
+    @Test
+    public void coalescesAppendedInserts() {
+        mBatch.begin();
+        insert(20, 1);
+        insert(21, 1);
+        insert(22, 2);
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertEquals(1, mActual.dispatched);
+        assertReplayed();
+    }
+
+    @Test
+    public void coalescesInsertsInsidePendingInsert() {
+        mBatch.begin();
+        insert(5, 4);
+        insert(7, 2);
+        insert(5, 1);
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void coalescesRemovesAtSamePosition() {
+        mBatch.begin();
+        remove(4, 1);
+        remove(4, 1);
+        remove(4, 3);
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void coalescesRemovesFromEnd() {
+        mBatch.begin();
+
+        for (int i = ITEM_COUNT - 1; i >= 10; i--) {
+            remove(i, 1);
+        }
+
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void removeCancelsPendingInsert() {
+        mBatch.begin();
+        insert(5, 3);
+        remove(5, 3);
+        assertEquals(0, mBatch.getPendingCount());
+        mBatch.commit();
+        assertEquals(0, mActual.dispatched);
+        assertReplayed();
+    }
+
+    @Test
+    public void removeOverlappingPendingInsert() {
+        mBatch.begin();
+        insert(5, 3);
+        // Removes two original items before the insert, the three inserted items and one original item after it
+        remove(3, 6);
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void removePartOfPendingInsert() {
+        mBatch.begin();
+        insert(5, 4);
+        remove(6, 2);
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void dropsChangesInsidePendingInsert() {
+        mBatch.begin();
+        insert(3, 4);
+        change(4, 2, "payload");
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void mergesChangesWithSamePayload() {
+        mBatch.begin();
+        change(2, 2, "payload");
+        change(4, 1, "payload");
+        change(1, 2, "payload");
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void mergesChangesWithNullPayload() {
+        mBatch.begin();
+        change(2, 2, null);
+        change(4, 2, null);
+        assertEquals(1, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void keepsChangesWithDifferentPayloads() {
+        mBatch.begin();
+        change(2, 2, "first");
+        change(4, 2, "second");
+        assertEquals(2, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void keepsMoves() {
+        mBatch.begin();
+        move(0, 5);
+        move(5, 0);
+        move(3, 3);
+        assertEquals(2, mBatch.getPendingCount());
+        mBatch.commit();
+        assertReplayed();
+    }
+
+    @Test
+    public void dispatchesOnOutermostCommit() {
+        mBatch.begin();
+        insert(0, 1);
+        mBatch.begin();
+        insert(1, 1);
+        remove(10, 2);
+        mBatch.commit();
+        assertTrue(mBatch.isBatching());
+        assertEquals(0, mActual.dispatched);
+        change(15, 1, null);
+        mBatch.commit();
+        assertFalse(mBatch.isBatching());
+        assertEquals(3, mActual.dispatched);
+        assertReplayed();
+    }
+
+    @Test
+    public void commitWithoutBeginThrows() {
+        try {
+            mBatch.commit();
+            fail("Expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void randomUpdates() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 500; run++) {
+            mExpected = new ListModel(ITEM_COUNT);
+            mActual = new ListModel(ITEM_COUNT);
+            mBatch = new UpdateBatch(mActual);
+            mBatch.begin();
+
+            for (int step = 0; step < 30; step++) {
+                int size = mExpected.items.size();
+                int position = random.nextInt(size + 1);
+
+                switch (random.nextInt(size == 0 ? 1 : 4)) {
+                    case 0:
+                        insert(position, 1 + random.nextInt(3));
+                        break;
+
+                    case 1:
+                        position = Math.min(position, size - 1);
+                        remove(position, 1 + random.nextInt(Math.min(3, size - position)));
+                        break;
+
+                    case 2:
+                        position = Math.min(position, size - 1);
+                        change(position, 1 + random.nextInt(Math.min(3, size - position)), random.nextBoolean() ? "payload" : null);
+                        break;
+
+                    case 3:
+                        move(Math.min(position, size - 1), random.nextInt(size));
+                        break;
+                }
+            }
+
+            mBatch.commit();
+            assertReplayed();
+        }
+    }
+
+    private void insert(int position, int count) {
+        mExpected.onInserted(position, count);
+        mBatch.onInserted(position, count);
+    }
+
+    private void remove(int position, int count) {
+        mExpected.onRemoved(position, count);
+        mBatch.onRemoved(position, count);
+    }
+
+    private void change(int position, int count, Object payload) {
+        mExpected.onChanged(position, count, payload);
+        mBatch.onChanged(position, count, payload);
+    }
+
+    private void move(int from, int to) {
+        mExpected.onMoved(from, to);
+        mBatch.onMoved(from, to);
+    }
+
+    private void assertReplayed() {
+        assertEquals(mExpected.items, mActual.items);
+    }
+
+    /**
+     * List of the original items, with inserted items as "+" and changed items suffixed with their payload
+     */
+    private static class ListModel implements ListUpdateCallback {
+        final List<String> items = new ArrayList<>();
+
+        int dispatched = 0;
+
+        ListModel(int count) {
+            for (int i = 0; i < count; i++) {
+                items.add(String.valueOf(i));
+            }
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            dispatched++;
+
+            for (int i = 0; i < count; i++) {
+                items.add(position, "+");
+            }
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            dispatched++;
+            items.subList(position, position + count).clear();
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            dispatched++;
+            items.add(toPosition, items.remove(fromPosition));
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            dispatched++;
+
+            for (int i = position; i < position + count; i++) {
+                String item = items.get(i);
+                // Inserted items are bound from scratch, a change says nothing new about them
+                if ("+".equals(item)) continue;
+                int index = item.indexOf('~');
+                items.set(i, (index < 0 ? item : item.substring(0, index)) + "~" + payload);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.kennyc.adapters_kotlin
+
+import android.os.Handler
+import android.os.Looper
+import android.os.Process
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Shared executors used by the adapters for work that should not run on the main thread
+ */
+internal object AdapterExecutors {
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    /**
+     * [Executor] that runs its commands on the main thread. Commands submitted from the main thread are run immediately
+     */
+    val mainThread: Executor = Executor { command ->
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            command.run()
+        } else {
+            mainHandler.post(command)
+        }
+    }
+
+    /**
+     * The shared background [Executor]. Threads run at background priority
+     */
+    val background: ExecutorService by lazy {
+        val count = AtomicInteger(1)
+        val threads = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1))
+
+        Executors.newFixedThreadPool(threads) { runnable ->
+            val thread = Thread(Runnable {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND)
+                runnable.run()
+            }, "RecyclerAdapter #" + count.getAndIncrement())
+            thread.isDaemon = true
+            thread
+        }
+    }
+}
@@ -3,11 +3,13 @@ package com.kennyc.adapters_kotlin
 import android.content.Context
 import android.content.res.Resources
 import android.support.annotation.*
+import android.support.v7.util.DiffUtil
 import android.support.v7.widget.RecyclerView
 import android.view.LayoutInflater
 import android.view.View
 import android.view.ViewGroup
 import java.util.*
+import java.util.concurrent.Executor
 
 
 abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
@@ -26,6 +28,20 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
 
     protected var resources: Resources?
 
+    /**
+     * The [ItemDiffCallback] used by [submitList] to compare items
+     */
+    var itemDiffCallback: ItemDiffCallback<T> = ItemDiffCallback.equality()
+
+    /**
+     * The [Executor] that [submitList] computes differences on. Null will use the shared background executor
+     */
+    var diffExecutor: Executor? = null
+
+    // Incremented for every submitted list, used to drop diffs that were superseded by a newer list
+    @Volatile
+    private var diffGeneration = 0
+
     init {
         inflater = LayoutInflater.from(context)
         resources = context.resources
@@ -38,6 +54,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      * @param item Object to add to the adapter
      */
     fun addItem(item: T) {
+        cancelPendingDiff()
         items.add(item)
         notifyItemInserted(items.size)
     }
@@ -50,6 +67,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      * @param position Position to add the object
      */
     fun addItem(item: T, position: Int) {
+        cancelPendingDiff()
         items.add(position, item)
         notifyItemRangeInserted(position, 1)
     }
@@ -64,6 +82,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
             return
         }
 
+        cancelPendingDiff()
         val startingSize = items.size
         items.addAll(itemsToAdd)
         val endSize = items.size
@@ -82,6 +101,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
             return
         }
 
+        cancelPendingDiff()
         items.addAll(position, itemsToAdd)
         notifyItemRangeInserted(position, itemsToAdd.size)
     }
@@ -106,6 +126,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      * @return The item removed
      */
     fun removeItem(position: Int): T {
+        cancelPendingDiff()
         val removedItem = items.removeAt(position)
         notifyItemRemoved(position)
         return removedItem
@@ -119,10 +140,61 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      * @param end   Ending position of removal
      */
     fun removeItems(start: Int, end: Int) {
+        cancelPendingDiff()
         items.subList(start, end).clear()
         notifyItemRangeRemoved(start, end - start)
     }
 
+    /**
+     * Replaces the items in the adapter with the given list. The difference between the current items and the new
+     * list is computed on a background thread and the minimal set of insert, remove, move and change notifications
+     * is dispatched on the main thread. If another list is submitted before the difference is computed, the
+     * previous result is discarded. Other mutations made while a difference is being computed will cancel it.
+
+     * @param newItems The new list of items, null will remove all items
+     */
+    @MainThread
+    fun submitList(newItems: List<T>?) {
+        val generation = ++diffGeneration
+
+        if (newItems == null || newItems.isEmpty() || items.isEmpty()) {
+            val size = items.size
+            items.clear()
+            if (size > 0) notifyItemRangeRemoved(0, size)
+
+            if (newItems != null && !newItems.isEmpty()) {
+                items.addAll(newItems)
+                notifyItemRangeInserted(0, newItems.size)
+            }
+            return
+        }
+
+        // Snapshot both lists as they may be modified while the difference is computed
+        val oldSnapshot = ArrayList(items)
+        val newSnapshot = ArrayList(newItems)
+        val callback = itemDiffCallback
+
+        (diffExecutor ?: AdapterExecutors.background).execute {
+            if (generation != diffGeneration) return@execute
+            val result = DiffUtil.calculateDiff(ListDiffCallback(oldSnapshot, newSnapshot, callback))
+
+            AdapterExecutors.mainThread.execute {
+                if (generation == diffGeneration) {
+                    items.clear()
+                    items.addAll(newSnapshot)
+                    result.dispatchUpdatesTo(this)
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels any difference being computed by [submitList]
+     */
+    private fun cancelPendingDiff() {
+        diffGeneration++
+    }
+
     /**
      * Returns the index of the item in regards to the backing list. If not found, [RecyclerView.NO_POSITION] will be returned
 
@@ -138,6 +210,7 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      * Removes all items from the list, [.notifyItemRangeRemoved] will be called
      */
     fun clear() {
+        cancelPendingDiff()
         val size = items.size
         items.clear()
         notifyItemRangeRemoved(0, size)
@@ -291,8 +364,39 @@ abstract class BaseRecyclerAdapter<T, VH : RecyclerView.ViewHolder>
      */
     @CallSuper
     fun onDestroy(clearItems: Boolean) {
+        cancelPendingDiff()
         resources = null
         inflater = null
         if (clearItems) items.clear()
     }
-}
\ No newline at end of file
+
+    private class ListDiffCallback<T>(private val oldItems: List<T>,
+                                      private val newItems: List<T>,
+                                      private val callback: ItemDiffCallback<T>) : DiffUtil.Callback() {
+
+        override fun getOldListSize(): Int = oldItems.size
+
+        override fun getNewListSize(): Int = newItems.size
+
+        override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+            val oldItem = oldItems[oldItemPosition]
+            val newItem = newItems[newItemPosition]
+            if (oldItem == null || newItem == null) return oldItem === newItem
+            return callback.areItemsTheSame(oldItem, newItem)
+        }
+
+        override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean {
+            val oldItem = oldItems[oldItemPosition]
+            val newItem = newItems[newItemPosition]
+            if (oldItem == null || newItem == null) return oldItem === newItem
+            return callback.areContentsTheSame(oldItem, newItem)
+        }
+
+        override fun getChangePayload(oldItemPosition: Int, newItemPosition: Int): Any? {
+            val oldItem = oldItems[oldItemPosition]
+            val newItem = newItems[newItemPosition]
+            if (oldItem == null || newItem == null) return null
+            return callback.getChangePayload(oldItem, newItem)
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kennyc.adapters_kotlin
+
+/**
+ * Callback used by [BaseRecyclerAdapter.submitList] to compute the difference between two lists.
+ * Methods are called from a background thread
+ */
+abstract class ItemDiffCallback<in T> {
+
+    /**
+     * Returns if the two items represent the same object, typically by comparing ids
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return If the two items represent the same object
+     */
+    abstract fun areItemsTheSame(oldItem: T, newItem: T): Boolean
+
+    /**
+     * Returns if the two items have the same visual representation. Only called when [areItemsTheSame] returns true
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return If the contents of the items are the same
+     */
+    abstract fun areContentsTheSame(oldItem: T, newItem: T): Boolean
+
+    /**
+     * Returns an optional payload describing the change between the two items. Only called when [areItemsTheSame]
+     * returns true and [areContentsTheSame] returns false
+     *
+     * @param oldItem Item from the current list
+     * @param newItem Item from the submitted list
+     * @return A payload for the change, null for a full rebind
+     */
+    open fun getChangePayload(oldItem: T, newItem: T): Any? = null
+
+    companion object {
+
+        /**
+         * Creates an [ItemDiffCallback] that uses [Any.equals] for identity and content
+         */
+        fun <T> equality(): ItemDiffCallback<T> = object : ItemDiffCallback<T>() {
+            override fun areItemsTheSame(oldItem: T, newItem: T): Boolean = oldItem == newItem
+
+            override fun areContentsTheSame(oldItem: T, newItem: T): Boolean = true
+        }
+    }
+}